@@ -7,54 +7,53 @@ import org.contan_lang.syntax.exception.ContanParseException;
 import org.contan_lang.syntax.parser.Parser;
 import org.contan_lang.thread.BasicContanThread;
 import org.contan_lang.thread.ContanThread;
+import org.contan_lang.thread.ThreadPlacementPolicy;
+import org.contan_lang.thread.WorkStealingContanThread;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.primitive.*;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class ContanEngine {
 
-    private final Set<ClassBlock> classBlocks;
+    private final Set<ClassBlock> classBlocks = ConcurrentHashMap.newKeySet();
 
-    private final Set<String> classNames;
+    private final Set<String> classNames = ConcurrentHashMap.newKeySet();
 
-    private final Set<String> collidedClassNames;
+    private final Set<String> collidedClassNames = ConcurrentHashMap.newKeySet();
     
-    private final Set<Class<?>> importedJavaClasses;
+    private final Set<Class<?>> importedJavaClasses = ConcurrentHashMap.newKeySet();
     
-    private final Map<String, Class<?>> javaClassMap;
+    private final Map<String, Class<?>> javaClassMap = new ConcurrentHashMap<>();
     
-    private final Map<String, ContanModule> moduleMap;
+    private final Map<String, ContanModule> moduleMap = new ConcurrentHashMap<>();
     
     private final ContanThread mainThread;
     
     private final List<ContanThread> asyncThreads;
 
     private final Map<String, ContanObjectReference> runtimeVariableMap = new ConcurrentHashMap<>();
+    
+    //Compilation is opt-in, every function runs on the interpreter unless a threshold is set.
+    //The compiled code removes the dispatch between evaluators, but still calls the same boxed operators,
+    //so loops of arithmetic on new values gain nothing, while each compiled function costs a class.
+    public static final int DEFAULT_COMPILE_THRESHOLD = -1;
+    
+    private volatile int compileThreshold = DEFAULT_COMPILE_THRESHOLD;
 
     
     public ContanEngine(ContanThread mainThread, List<ContanThread> asyncThreads) {
-        this.classBlocks = new HashSet<>();
-        this.classNames = new HashSet<>();
-        this.collidedClassNames = new HashSet<>();
-        this.importedJavaClasses = new HashSet<>();
-        this.javaClassMap = new HashMap<>();
-        this.moduleMap = new HashMap<>();
         this.mainThread = mainThread;
         this.asyncThreads = asyncThreads;
         initialize();
     }
     
     public ContanEngine() {
-        this.classBlocks = new HashSet<>();
-        this.classNames = new HashSet<>();
-        this.collidedClassNames = new HashSet<>();
-        this.importedJavaClasses = new HashSet<>();
-        this.javaClassMap = new HashMap<>();
-        this.moduleMap = new HashMap<>();
         this.mainThread = new BasicContanThread(this);
         this.asyncThreads = new ArrayList<>();
         asyncThreads.add(new BasicContanThread(this));
@@ -62,6 +61,22 @@ public class ContanEngine {
         initialize();
     }
 
+    /**
+     * Create an engine whose async threads are logical threads on a work-stealing pool.
+     * Using more async threads than the parallelism of the pool lets a slow task hold up fewer queued tasks.
+     *
+     * @param asyncPool Pool that runs the async threads
+     * @param asyncThreadCount Number of async threads
+     */
+    public ContanEngine(ForkJoinPool asyncPool, int asyncThreadCount) {
+        this.mainThread = new BasicContanThread(this);
+        this.asyncThreads = new ArrayList<>();
+        for (int i = 0; i < asyncThreadCount; i++) {
+            asyncThreads.add(new WorkStealingContanThread(this, asyncPool));
+        }
+        initialize();
+    }
+
     private void initialize() {
         setRuntimeVariable("@CURRENT_THREAD", ContanVoidObject.INSTANCE);
         setRuntimeVariable("@MAIN_THREAD", mainThread);
@@ -86,22 +101,20 @@ public class ContanEngine {
     }
 
     public void addClassBlock(ClassBlock classBlock) {
-        if (classNames.contains(classBlock.getClassName().getText())) {
+        if (!classNames.add(classBlock.getClassName().getText())) {
             collidedClassNames.add(classBlock.getClassName().getText());
         }
 
         classBlocks.add(classBlock);
-        classNames.add(classBlock.getClassName().getText());
     }
     
     public void addJavaClass(String classPath) throws Exception {
         Class<?> clazz = Class.forName(classPath);
     
-        if (classNames.contains(clazz.getSimpleName())) {
+        if (!classNames.add(clazz.getSimpleName())) {
             collidedClassNames.add(clazz.getSimpleName());
         }
         
-        classNames.add(clazz.getSimpleName());
         importedJavaClasses.add(clazz);
         javaClassMap.put(clazz.getSimpleName(), clazz);
     }
@@ -111,14 +124,40 @@ public class ContanEngine {
     }
     
     public ContanThread getMainThread() {return mainThread;}
+    
+    public int getCompileThreshold() {return compileThreshold;}
+    
+    /**
+     * Set the number of calls after which a function is compiled to a JVM class.
+     * Functions are not compiled by default.
+     *
+     * @param compileThreshold Number of calls, or -1 to run every function on the interpreter
+     */
+    public void setCompileThreshold(int compileThreshold) {this.compileThreshold = compileThreshold;}
 
     public List<ContanThread> getAsyncThreads() {return asyncThreads;}
     
-    private final AtomicInteger nextCount = new AtomicInteger();
+    private volatile ThreadPlacementPolicy asyncThreadPlacementPolicy = ThreadPlacementPolicy.roundRobin();
+    
+    public ThreadPlacementPolicy getAsyncThreadPlacementPolicy() {return asyncThreadPlacementPolicy;}
+    
+    /**
+     * Set how async tasks are placed on the async threads.
+     *
+     * @param asyncThreadPlacementPolicy {@link ThreadPlacementPolicy}, round robin by default
+     */
+    public void setAsyncThreadPlacementPolicy(ThreadPlacementPolicy asyncThreadPlacementPolicy) {this.asyncThreadPlacementPolicy = asyncThreadPlacementPolicy;}
     
     public ContanThread getNextAsyncThread() {
-        int count = nextCount.getAndAdd(1);
-        return asyncThreads.get(count % asyncThreads.size());
+        return getNextAsyncThread(null);
+    }
+    
+    /**
+     * @param callerThread Thread that starts the async task, null if unknown
+     * @return Async thread chosen by the placement policy
+     */
+    public ContanThread getNextAsyncThread(@Nullable ContanThread callerThread) {
+        return asyncThreadPlacementPolicy.select(asyncThreads, callerThread);
     }
     
     
@@ -153,11 +192,81 @@ public class ContanEngine {
     public ContanModule compile(String moduleName, String sourceCode) throws ContanParseException {
         Parser parser = new Parser(moduleName, this, sourceCode);
         ContanModule contanModule = parser.compile();
-        moduleMap.put(moduleName, contanModule);
+        registerModule(contanModule);
         
         return contanModule;
     }
     
+    /**
+     * Compile multiple independent modules in parallel on the common fork-join pool.
+     *
+     * @param sourceCodes Source codes by module name.
+     * @return Compiled modules by module name, in the iteration order of the given map.
+     * @throws ContanParseException Compile-time exception of the first failed module in the iteration order.
+     *                              No module is registered if any of them fails.
+     */
+    public Map<String, ContanModule> compileAll(Map<String, String> sourceCodes) throws ContanParseException {
+        return compileAll(sourceCodes, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Compile multiple independent modules in parallel.
+     * Lexing and parsing run on the given pool, then the modules and their classes
+     * are registered to this engine in the iteration order of the given map.
+     *
+     * @param sourceCodes Source codes by module name.
+     * @param pool Pool to run the compilation on.
+     * @return Compiled modules by module name, in the iteration order of the given map.
+     * @throws ContanParseException Compile-time exception of the first failed module in the iteration order.
+     *                              No module is registered if any of them fails.
+     */
+    public Map<String, ContanModule> compileAll(Map<String, String> sourceCodes, ForkJoinPool pool) throws ContanParseException {
+        List<String> moduleNames = new ArrayList<>(sourceCodes.size());
+        List<ForkJoinTask<ContanModule>> tasks = new ArrayList<>(sourceCodes.size());
+        
+        for (Map.Entry<String, String> entry : sourceCodes.entrySet()) {
+            String moduleName = entry.getKey();
+            String sourceCode = entry.getValue();
+            
+            moduleNames.add(moduleName);
+            tasks.add(pool.submit(() -> new Parser(moduleName, this, sourceCode).compile()));
+        }
+        
+        Map<String, ContanModule> modules = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                modules.put(moduleNames.get(i), tasks.get(i).get());
+            } catch (ExecutionException e) {
+                //Checked exceptions of the task are wrapped by the pool
+                for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                    if (cause instanceof ContanParseException) {
+                        throw (ContanParseException) cause;
+                    }
+                }
+                
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        
+        modules.values().forEach(this::registerModule);
+        
+        return modules;
+    }
+    
+    private void registerModule(ContanModule contanModule) {
+        contanModule.getClassBlocks().forEach(this::addClassBlock);
+        moduleMap.put(contanModule.getRootName(), contanModule);
+    }
+    
     /**
      * Retrieves compiled modules.
      *
@@ -0,0 +1,212 @@
+package org.contan_lang.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a class file with fields and methods.
+ * <p>
+ * The class file version is 49, so the methods need no stack map frames and are verified by type inference.
+ */
+class ClassFileWriter {
+
+    static final int ACC_PUBLIC = 0x0001;
+
+    static final int ACC_PRIVATE = 0x0002;
+
+    static final int ACC_FINAL = 0x0010;
+
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int CLASS_FILE_VERSION = 49;
+
+    private static final int CONSTANT_UTF8 = 1;
+
+    private static final int CONSTANT_CLASS = 7;
+
+    private static final int CONSTANT_FIELD_REF = 9;
+
+    private static final int CONSTANT_METHOD_REF = 10;
+
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+
+    private final ByteArrayOutputStream constantPoolBytes = new ByteArrayOutputStream();
+
+    private final DataOutputStream constantPool = new DataOutputStream(constantPoolBytes);
+
+    private final Map<String, Integer> constantIndexes = new HashMap<>();
+
+    private int constantCount = 1;
+
+    private final int thisClass;
+
+    private final int superClass;
+
+    private final List<byte[]> fields = new ArrayList<>();
+
+    private final List<byte[]> methods = new ArrayList<>();
+
+    /**
+     * @param className Internal name of the class, such as "org/contan_lang/Example"
+     * @param superClassName Internal name of the super class
+     */
+    ClassFileWriter(String className, String superClassName) {
+        this.thisClass = classConstant(className);
+        this.superClass = classConstant(superClassName);
+    }
+
+    int utf8Constant(String value) {
+        return constant("U" + value, () -> {
+            constantPool.writeByte(CONSTANT_UTF8);
+            constantPool.writeUTF(value);
+        });
+    }
+
+    int classConstant(String internalName) {
+        int name = utf8Constant(internalName);
+        return constant("C" + internalName, () -> {
+            constantPool.writeByte(CONSTANT_CLASS);
+            constantPool.writeShort(name);
+        });
+    }
+
+    int fieldConstant(String owner, String name, String descriptor) {
+        return memberConstant(CONSTANT_FIELD_REF, owner, name, descriptor);
+    }
+
+    int methodConstant(String owner, String name, String descriptor) {
+        return memberConstant(CONSTANT_METHOD_REF, owner, name, descriptor);
+    }
+
+    private int memberConstant(int tag, String owner, String name, String descriptor) {
+        int ownerIndex = classConstant(owner);
+        int nameIndex = utf8Constant(name);
+        int descriptorIndex = utf8Constant(descriptor);
+        int nameAndType = constant("N" + name + " " + descriptor, () -> {
+            constantPool.writeByte(CONSTANT_NAME_AND_TYPE);
+            constantPool.writeShort(nameIndex);
+            constantPool.writeShort(descriptorIndex);
+        });
+
+        return constant(tag + owner + "." + name + " " + descriptor, () -> {
+            constantPool.writeByte(tag);
+            constantPool.writeShort(ownerIndex);
+            constantPool.writeShort(nameAndType);
+        });
+    }
+
+    private int constant(String key, ConstantWriter writer) {
+        Integer index = constantIndexes.get(key);
+        if (index != null) {
+            return index;
+        }
+
+        if (constantCount == 0xFFFF) {
+            throw new IllegalStateException("Too many constants.");
+        }
+
+        try {
+            writer.write();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        index = constantCount++;
+        constantIndexes.put(key, index);
+        return index;
+    }
+
+    void addField(int access, String name, String descriptor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8Constant(name));
+            out.writeShort(utf8Constant(descriptor));
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        fields.add(bytes.toByteArray());
+    }
+
+    void addMethod(int access, String name, String descriptor, CodeWriter code) {
+        byte[] codeBytes = code.toByteArray();
+        if (codeBytes.length > 0xFFFF) {
+            throw new IllegalStateException("Method is too large.");
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            out.writeShort(access);
+            out.writeShort(utf8Constant(name));
+            out.writeShort(utf8Constant(descriptor));
+
+            //Code attribute only
+            out.writeShort(1);
+            out.writeShort(utf8Constant("Code"));
+            out.writeInt(12 + codeBytes.length);
+            out.writeShort(code.getMaxStack());
+            out.writeShort(code.getMaxLocals());
+            out.writeInt(codeBytes.length);
+            out.write(codeBytes);
+            out.writeShort(0);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        methods.add(bytes.toByteArray());
+    }
+
+    byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(CLASS_FILE_VERSION);
+
+            out.writeShort(constantCount);
+            out.write(constantPoolBytes.toByteArray());
+
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+
+            out.writeShort(fields.size());
+            for (byte[] field : fields) {
+                out.write(field);
+            }
+
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+
+    private interface ConstantWriter {
+        void write() throws IOException;
+    }
+
+}
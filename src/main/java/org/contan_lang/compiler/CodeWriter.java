@@ -0,0 +1,201 @@
+package org.contan_lang.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the bytecode of a method, and keeps track of the stack depth and the local variables.
+ * <p>
+ * The stack depth is tracked in the order the instructions are written, so the code has to be
+ * written so that each label is reached with the same depth as the instruction before it.
+ */
+class CodeWriter {
+
+    static final int ACONST_NULL = 0x01;
+    static final int LCONST_0 = 0x09;
+    static final int LCONST_1 = 0x0A;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LLOAD = 0x16;
+    static final int ALOAD = 0x19;
+    static final int LSTORE = 0x37;
+    static final int ASTORE = 0x3A;
+    static final int AALOAD = 0x32;
+    static final int POP = 0x57;
+    static final int LADD = 0x61;
+    static final int LCMP = 0x94;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9A;
+    static final int IFGE = 0x9C;
+    static final int IF_ACMPEQ = 0xA5;
+    static final int IF_ACMPNE = 0xA6;
+    static final int GOTO = 0xA7;
+    static final int ARETURN = 0xB0;
+    static final int RETURN = 0xB1;
+    static final int GETSTATIC = 0xB2;
+    static final int GETFIELD = 0xB4;
+    static final int PUTFIELD = 0xB5;
+    static final int INVOKEVIRTUAL = 0xB6;
+    static final int INVOKESPECIAL = 0xB7;
+    static final int CHECKCAST = 0xC0;
+
+
+    private final ClassFileWriter classFile;
+
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+    private final List<Label> labels = new ArrayList<>();
+
+    private int stack = 0;
+
+    private int maxStack = 0;
+
+    private int maxLocals;
+
+    /**
+     * @param classFile Class that the constants are added to
+     * @param argumentSlots Slots used by 'this' and the arguments
+     */
+    CodeWriter(ClassFileWriter classFile, int argumentSlots) {
+        this.classFile = classFile;
+        this.maxLocals = argumentSlots;
+    }
+
+    int getMaxStack() {return maxStack;}
+
+    int getMaxLocals() {return maxLocals;}
+
+    /**
+     * @param size 1 for a reference, 2 for a long
+     * @return Slot of the new local variable
+     */
+    int newLocal(int size) {
+        int local = maxLocals;
+        maxLocals += size;
+        if (maxLocals > 0xFF) {
+            throw new IllegalStateException("Too many local variables.");
+        }
+        return local;
+    }
+
+    private void push(int count) {
+        stack += count;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    void op(int opcode, int stackChange) {
+        code.write(opcode);
+        push(stackChange);
+    }
+
+    void local(int opcode, int local, int stackChange) {
+        code.write(opcode);
+        code.write(local);
+        push(stackChange);
+    }
+
+    void pushInt(int value) {
+        if (value >= 0 && value <= 5) {
+            code.write(0x03 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            code.write(BIPUSH);
+            code.write(value);
+        } else {
+            code.write(SIPUSH);
+            writeShort(value);
+        }
+        push(1);
+    }
+
+    void type(int opcode, String internalName) {
+        code.write(opcode);
+        writeShort(classFile.classConstant(internalName));
+    }
+
+    void field(int opcode, String owner, String name, String descriptor) {
+        code.write(opcode);
+        writeShort(classFile.fieldConstant(owner, name, descriptor));
+
+        int size = descriptor.equals("J") || descriptor.equals("D") ? 2 : 1;
+        switch (opcode) {
+            case GETSTATIC: push(size); break;
+            case GETFIELD: push(size - 1); break;
+            case PUTFIELD: push(-size - 1); break;
+        }
+    }
+
+    void invoke(int opcode, String owner, String name, String descriptor) {
+        code.write(opcode);
+        writeShort(classFile.methodConstant(owner, name, descriptor));
+
+        int arguments = 0;
+        int index = 1;
+        while (descriptor.charAt(index) != ')') {
+            char c = descriptor.charAt(index);
+            if (c == 'J' || c == 'D') {
+                arguments += 2;
+                index++;
+            } else {
+                while (descriptor.charAt(index) == '[') {
+                    index++;
+                }
+                index = descriptor.charAt(index) == 'L' ? descriptor.indexOf(';', index) + 1 : index + 1;
+                arguments++;
+            }
+        }
+
+        char returnType = descriptor.charAt(index + 1);
+        int returned = returnType == 'V' ? 0 : returnType == 'J' || returnType == 'D' ? 2 : 1;
+        push(returned - arguments - 1);
+    }
+
+    void jump(int opcode, Label label, int stackChange) {
+        label.fixups.add(code.size());
+        code.write(opcode);
+        writeShort(0);
+        push(stackChange);
+    }
+
+    Label newLabel() {
+        Label label = new Label();
+        labels.add(label);
+        return label;
+    }
+
+    void mark(Label label) {
+        label.position = code.size();
+    }
+
+    byte[] toByteArray() {
+        byte[] bytes = code.toByteArray();
+
+        for (Label label : labels) {
+            for (int fixup : label.fixups) {
+                int offset = label.position - fixup;
+                if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Jump is too far.");
+                }
+                bytes[fixup + 1] = (byte) (offset >> 8);
+                bytes[fixup + 2] = (byte) offset;
+            }
+        }
+
+        return bytes;
+    }
+
+    private void writeShort(int value) {
+        code.write(value >> 8);
+        code.write(value);
+    }
+
+
+    static class Label {
+
+        private int position = -1;
+
+        private final List<Integer> fixups = new ArrayList<>();
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.contan_lang.compiler;
+
+/**
+ * Loads the class generated for a function.
+ * Each function has its own loader, so that the class is unloaded together with the function.
+ */
+class CompiledClassLoader extends ClassLoader {
+    
+    CompiledClassLoader() {
+        super(CompiledClassLoader.class.getClassLoader());
+    }
+    
+    Class<?> define(String className, byte[] bytes) {
+        return defineClass(className, bytes, 0, bytes.length);
+    }
+    
+}
@@ -0,0 +1,12 @@
+package org.contan_lang.compiler;
+
+import org.contan_lang.evaluators.Evaluator;
+
+/**
+ * Super class of the evaluators generated by {@link FunctionCompiler}.
+ */
+public abstract class CompiledEvaluator implements Evaluator {
+    
+    public CompiledEvaluator() {}
+    
+}
@@ -0,0 +1,389 @@
+package org.contan_lang.compiler;
+
+import org.contan_lang.environment.CancelStatus;
+import org.contan_lang.environment.Environment;
+import org.contan_lang.evaluators.Evaluator;
+import org.contan_lang.evaluators.Expressions;
+import org.contan_lang.evaluators.IfEvaluator;
+import org.contan_lang.evaluators.NullEvaluator;
+import org.contan_lang.evaluators.RepeatEvaluator;
+import org.contan_lang.operators.Operator;
+import org.contan_lang.operators.primitives.*;
+import org.contan_lang.variables.ContanObject;
+import org.contan_lang.variables.primitive.ContanVoidObject;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.contan_lang.compiler.CodeWriter.*;
+
+/**
+ * Translates the evaluator tree of a function into a generated JVM class.
+ * <p>
+ * The blocks, ifs, repeats and operators of the tree are written out as bytecode, and the other
+ * evaluators are called directly on their own class. Each call site in the generated code sees only
+ * one class, so the JIT can inline the whole function.
+ * <p>
+ * Only functions that never suspend are compiled, since the generated code keeps no coroutine statuses.
+ * Functions that await, delay or start tasks keep running on the interpreter.
+ */
+public class FunctionCompiler {
+
+    private static final String COMPILED_EVALUATOR = internalName(CompiledEvaluator.class);
+
+    private static final String ENVIRONMENT = internalName(Environment.class);
+
+    private static final String CONTAN_OBJECT = descriptor(ContanObject.class);
+
+    private static final String EVAL = "(" + descriptor(Environment.class) + ")" + CONTAN_OBJECT;
+
+    private static final String CANCEL_STATUS = internalName(CancelStatus.class);
+
+    private static final String VOID_OBJECT = internalName(ContanVoidObject.class);
+
+    //Written out as evaluating the operands, then 'calculate'
+    private static final Set<Class<?>> BINARY_OPERATORS = new HashSet<>(Arrays.asList(
+            AddOperator.class, MultiplyOperator.class, DivisionOperator.class, RemainderOperator.class,
+            EqualOperator.class, BooleanOperator.class, SetValueOperator.class));
+
+    private static final Set<Class<?>> UNARY_OPERATORS = new HashSet<>(Arrays.asList(
+            InvertSignOperator.class, NotOperator.class, RemoveReferenceOperator.class));
+
+    //Evaluated by their own 'eval', and never suspend as long as their operands do not
+    private static final Set<Class<?>> INTERPRETED_EVALUATORS = new HashSet<>(Arrays.asList(
+            GetVariableOperator.class, DefineValueOperator.class, NullValueOperator.class,
+            CreateVariableOperator.class, CreateConstVariableOperator.class, RepeatStopOrSkipOperator.class,
+            InstanceOfOperator.class, GetFieldOperator.class, PreLinkedFunctionOperator.class, NullEvaluator.class));
+
+    private static final AtomicInteger classCount = new AtomicInteger();
+
+    /**
+     * @return Number of classes generated so far by all engines
+     */
+    public static int getClassCount() {return classCount.get();}
+
+    /**
+     * @param evaluator Evaluator of the function
+     * @return Generated evaluator, null if the function can not be compiled
+     */
+    public static @Nullable Evaluator compile(Evaluator evaluator) {
+        if (!isCompilable(evaluator)) {
+            return null;
+        }
+
+        String className = "org.contan_lang.compiler.generated.CompiledFunction" + classCount.incrementAndGet();
+
+        try {
+            FunctionCompiler compiler = new FunctionCompiler(className.replace('.', '/'));
+            byte[] bytes = compiler.generate(evaluator);
+
+            Class<?> compiledClass = new CompiledClassLoader().define(className, bytes);
+            return (Evaluator) compiledClass.getConstructor(Object[].class).newInstance((Object) compiler.getNodes());
+        } catch (Exception | LinkageError e) {
+            //Too large or not supported, keep it on the interpreter
+            return null;
+        }
+    }
+
+    /**
+     * @return True if every evaluator of the tree can be compiled and none of them suspends the function
+     */
+    public static boolean isCompilable(@Nullable Evaluator evaluator) {
+        if (evaluator == null) {
+            return true;
+        }
+
+        Class<?> type = evaluator.getClass();
+
+        if (type == Expressions.class) {
+            return areCompilable(((Expressions) evaluator).getExpressions());
+        } else if (type == IfEvaluator.class) {
+            IfEvaluator ifEvaluator = (IfEvaluator) evaluator;
+            return isCompilable(ifEvaluator.getTermsEvaluator()) && isCompilable(ifEvaluator.getTrueExpression())
+                    && isCompilable(ifEvaluator.getLinkedElseEvaluator());
+        } else if (type == RepeatEvaluator.class) {
+            RepeatEvaluator repeatEvaluator = (RepeatEvaluator) evaluator;
+            return isCompilable(repeatEvaluator.getTermsEvaluator()) && isCompilable(repeatEvaluator.getEvaluator());
+        } else if (BINARY_OPERATORS.contains(type)) {
+            Evaluator[] operators = ((Operator) evaluator).getOperators();
+            return operators.length == 2 && areCompilable(operators);
+        } else if (UNARY_OPERATORS.contains(type) || type == SetReturnValueOperator.class) {
+            Evaluator[] operators = ((Operator) evaluator).getOperators();
+            return operators.length == 1 && areCompilable(operators);
+        } else if (type == PreLinkedFunctionOperator.class) {
+            //Awaiting suspends the function
+            PreLinkedFunctionOperator operator = (PreLinkedFunctionOperator) evaluator;
+            return !operator.getFunctionName().getText().equals("await")
+                    && isCompilable(operator.getLeft()) && areCompilable(operator.getArgs());
+        } else if (type == GetFieldOperator.class) {
+            return isCompilable(((GetFieldOperator) evaluator).getLeft());
+        } else if (INTERPRETED_EVALUATORS.contains(type)) {
+            return !(evaluator instanceof Operator) || areCompilable(((Operator) evaluator).getOperators());
+        }
+
+        return false;
+    }
+
+    private static boolean areCompilable(Evaluator[] evaluators) {
+        for (Evaluator evaluator : evaluators) {
+            if (!isCompilable(evaluator)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private final String className;
+
+    private final ClassFileWriter classFile;
+
+    //Index of the field that holds each evaluator
+    private final Map<Evaluator, Integer> nodeIndexes = new IdentityHashMap<>();
+
+    private Object[] nodes = new Object[16];
+
+    private CodeWriter code;
+
+    private FunctionCompiler(String className) {
+        this.className = className;
+        this.classFile = new ClassFileWriter(className, COMPILED_EVALUATOR);
+    }
+
+    private Object[] getNodes() {return Arrays.copyOf(nodes, nodeIndexes.size());}
+
+    private byte[] generate(Evaluator evaluator) {
+        //ContanObject<?> eval(Environment environment)
+        code = new CodeWriter(classFile, 2);
+        emit(evaluator, 1);
+        code.op(ARETURN, -1);
+        classFile.addMethod(ClassFileWriter.ACC_PUBLIC, "eval", EVAL, code);
+
+        //Constructor that stores the evaluators in the fields
+        CodeWriter constructor = new CodeWriter(classFile, 2);
+        constructor.local(ALOAD, 0, 1);
+        constructor.invoke(INVOKESPECIAL, COMPILED_EVALUATOR, "<init>", "()V");
+        for (Map.Entry<Evaluator, Integer> entry : nodeIndexes.entrySet()) {
+            String type = internalName(entry.getKey().getClass());
+
+            constructor.local(ALOAD, 0, 1);
+            constructor.local(ALOAD, 1, 1);
+            constructor.pushInt(entry.getValue());
+            constructor.op(AALOAD, -1);
+            constructor.type(CHECKCAST, type);
+            constructor.field(PUTFIELD, className, "node" + entry.getValue(), "L" + type + ";");
+        }
+        constructor.op(RETURN, 0);
+        classFile.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", constructor);
+
+        return classFile.toByteArray();
+    }
+
+    /**
+     * Write the code that evaluates the evaluator and pushes its result.
+     *
+     * @param environment Local variable that holds the environment to evaluate in
+     */
+    private void emit(Evaluator evaluator, int environment) {
+        Class<?> type = evaluator.getClass();
+
+        if (type == Expressions.class) {
+            emitExpressions(((Expressions) evaluator).getExpressions(), environment);
+        } else if (type == IfEvaluator.class) {
+            emitIf((IfEvaluator) evaluator, environment);
+        } else if (type == RepeatEvaluator.class) {
+            emitRepeat((RepeatEvaluator) evaluator, environment);
+        } else if (BINARY_OPERATORS.contains(type)) {
+            Evaluator[] operators = ((Operator) evaluator).getOperators();
+            loadNode(evaluator);
+            emit(operators[0], environment);
+            emit(operators[1], environment);
+            code.invoke(INVOKEVIRTUAL, internalName(type), "calculate", "(" + CONTAN_OBJECT + CONTAN_OBJECT + ")" + CONTAN_OBJECT);
+        } else if (UNARY_OPERATORS.contains(type)) {
+            loadNode(evaluator);
+            emit(((Operator) evaluator).getOperators()[0], environment);
+            code.invoke(INVOKEVIRTUAL, internalName(type), "calculate", "(" + CONTAN_OBJECT + ")" + CONTAN_OBJECT);
+        } else if (type == SetReturnValueOperator.class) {
+            loadNode(evaluator);
+            code.local(ALOAD, environment, 1);
+            emit(((Operator) evaluator).getOperators()[0], environment);
+            code.invoke(INVOKEVIRTUAL, internalName(type), "calculate", "(" + descriptor(Environment.class) + CONTAN_OBJECT + ")" + CONTAN_OBJECT);
+        } else {
+            loadNode(evaluator);
+            code.local(ALOAD, environment, 1);
+            code.invoke(INVOKEVIRTUAL, internalName(type), "eval", EVAL);
+        }
+    }
+
+    /**
+     * Same as {@link Expressions#eval(Environment, int)}.
+     */
+    private void emitExpressions(Evaluator[] expressions, int environment) {
+        if (expressions.length == 0) {
+            code.field(GETSTATIC, VOID_OBJECT, "INSTANCE", "L" + VOID_OBJECT + ";");
+            return;
+        }
+
+        Label voidResult = code.newLabel();
+        Label end = code.newLabel();
+
+        for (int i = 0; i < expressions.length; i++) {
+            emit(expressions[i], environment);
+
+            if (i == expressions.length - 1) {
+                //Result of the last expression, unless the block has been stopped or skipped
+                emitCancelStatus(environment, "NONE");
+                code.jump(IF_ACMPEQ, end, -2);
+                code.op(POP, -1);
+                code.jump(GOTO, voidResult, 0);
+            } else {
+                code.op(POP, -1);
+                emitCancelStatus(environment, "NONE");
+                code.jump(IF_ACMPNE, voidResult, -2);
+
+                code.local(ALOAD, environment, 1);
+                code.invoke(INVOKEVIRTUAL, ENVIRONMENT, "hasReturnValue", "()Z");
+                code.jump(IFNE, voidResult, -1);
+            }
+        }
+
+        code.mark(voidResult);
+        code.field(GETSTATIC, VOID_OBJECT, "INSTANCE", "L" + VOID_OBJECT + ";");
+        code.mark(end);
+    }
+
+    /**
+     * Same as {@link IfEvaluator#eval(Environment)}.
+     */
+    private void emitIf(IfEvaluator ifEvaluator, int environment) {
+        Label elseLabel = code.newLabel();
+        Label end = code.newLabel();
+
+        loadNode(ifEvaluator);
+        emit(ifEvaluator.getTermsEvaluator(), environment);
+        code.invoke(INVOKEVIRTUAL, internalName(IfEvaluator.class), "test", "(" + CONTAN_OBJECT + ")Z");
+        code.jump(IFEQ, elseLabel, -1);
+
+        Evaluator trueExpression = ifEvaluator.getTrueExpression();
+        if (trueExpression != null) {
+            int nestedEnvironment = code.newLocal(1);
+            loadNode(ifEvaluator);
+            code.local(ALOAD, environment, 1);
+            code.invoke(INVOKEVIRTUAL, internalName(IfEvaluator.class), "createEnvironment", "(" + descriptor(Environment.class) + ")" + descriptor(Environment.class));
+            code.local(ASTORE, nestedEnvironment, -1);
+
+            emit(trueExpression, nestedEnvironment);
+            code.op(POP, -1);
+        }
+        code.jump(GOTO, end, 0);
+
+        code.mark(elseLabel);
+        Evaluator elseEvaluator = ifEvaluator.getLinkedElseEvaluator();
+        if (elseEvaluator != null) {
+            emit(elseEvaluator, environment);
+            code.op(POP, -1);
+        }
+
+        code.mark(end);
+        code.field(GETSTATIC, VOID_OBJECT, "INSTANCE", "L" + VOID_OBJECT + ";");
+    }
+
+    /**
+     * Same as {@link RepeatEvaluator#eval(Environment)}.
+     */
+    private void emitRepeat(RepeatEvaluator repeatEvaluator, int environment) {
+        Label loop = code.newLabel();
+        Label end = code.newLabel();
+
+        int newEnvironment = code.newLocal(1);
+        loadNode(repeatEvaluator);
+        code.local(ALOAD, environment, 1);
+        code.invoke(INVOKEVIRTUAL, internalName(RepeatEvaluator.class), "createEnvironment", "(" + descriptor(Environment.class) + ")" + descriptor(Environment.class));
+        code.local(ASTORE, newEnvironment, -1);
+
+        Evaluator termsEvaluator = repeatEvaluator.getTermsEvaluator();
+        int count = -1;
+        int numberOfRepeat = -1;
+        if (termsEvaluator != null) {
+            numberOfRepeat = code.newLocal(2);
+            count = code.newLocal(2);
+
+            loadNode(repeatEvaluator);
+            emit(termsEvaluator, environment);
+            code.invoke(INVOKEVIRTUAL, internalName(RepeatEvaluator.class), "getNumberOfRepeat", "(" + CONTAN_OBJECT + ")J");
+            code.local(LSTORE, numberOfRepeat, -2);
+            code.op(LCONST_0, 2);
+            code.local(LSTORE, count, -2);
+        }
+
+        code.mark(loop);
+        if (termsEvaluator != null) {
+            code.local(LLOAD, count, 2);
+            code.local(LLOAD, numberOfRepeat, 2);
+            code.op(LCMP, -3);
+            code.jump(IFGE, end, -1);
+        }
+
+        emit(repeatEvaluator.getEvaluator(), newEnvironment);
+        code.op(POP, -1);
+
+        emitCancelStatus(newEnvironment, "STOP");
+        code.jump(IF_ACMPEQ, end, -2);
+
+        if (termsEvaluator != null) {
+            code.local(LLOAD, count, 2);
+            code.op(LCONST_1, 2);
+            code.op(LADD, -2);
+            code.local(LSTORE, count, -2);
+        }
+        code.jump(GOTO, loop, 0);
+
+        code.mark(end);
+        code.field(GETSTATIC, VOID_OBJECT, "INSTANCE", "L" + VOID_OBJECT + ";");
+    }
+
+    /**
+     * Push the cancel status of the environment and the given status to compare with.
+     */
+    private void emitCancelStatus(int environment, String status) {
+        code.local(ALOAD, environment, 1);
+        code.invoke(INVOKEVIRTUAL, ENVIRONMENT, "getCancelStatus", "()L" + CANCEL_STATUS + ";");
+        code.field(GETSTATIC, CANCEL_STATUS, status, "L" + CANCEL_STATUS + ";");
+    }
+
+    /**
+     * Push the evaluator from the field of the generated class, typed as its own class.
+     */
+    private void loadNode(Evaluator evaluator) {
+        Integer index = nodeIndexes.get(evaluator);
+        String type = internalName(evaluator.getClass());
+
+        if (index == null) {
+            index = nodeIndexes.size();
+            nodeIndexes.put(evaluator, index);
+
+            if (index == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            }
+            nodes[index] = evaluator;
+            classFile.addField(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, "node" + index, "L" + type + ";");
+        }
+
+        code.local(ALOAD, 0, 1);
+        code.field(GETFIELD, className, "node" + index, "L" + type + ";");
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        return "L" + internalName(type) + ";";
+    }
+
+}
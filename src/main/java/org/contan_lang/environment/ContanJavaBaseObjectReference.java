@@ -1,19 +1,18 @@
 package org.contan_lang.environment;
 
 import org.contan_lang.ContanEngine;
+import org.contan_lang.runtime.JavaField;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.primitive.ContanVoidObject;
 import org.contan_lang.variables.primitive.JavaClassInstance;
 
-import java.lang.reflect.Field;
-
 public class ContanJavaBaseObjectReference extends ContanObjectReference {
 
-    private final Field field;
+    private final JavaField field;
 
     private final Object javaObject;
 
-    public ContanJavaBaseObjectReference(ContanEngine contanEngine, String name, ContanObject<?> contanObject, Field field, Object javaObject) {
+    public ContanJavaBaseObjectReference(ContanEngine contanEngine, String name, ContanObject<?> contanObject, JavaField field, Object javaObject) {
         super(contanEngine, name, contanObject);
         this.field = field;
         this.javaObject = javaObject;
@@ -28,8 +27,10 @@ public class ContanJavaBaseObjectReference extends ContanObjectReference {
 
     @Override
     public ContanObject<?> getContanObject() throws Exception {
-        Object result = field.get(javaObject);
+        return toContanObject(contanEngine, field.get(javaObject));
+    }
 
+    public static ContanObject<?> toContanObject(ContanEngine contanEngine, Object result) {
         if (result == null) {
             return ContanVoidObject.INSTANCE;
         } else if (result instanceof ContanObject<?>) {
@@ -38,5 +39,5 @@ public class ContanJavaBaseObjectReference extends ContanObjectReference {
             return new JavaClassInstance(contanEngine, result);
         }
     }
-    
+
 }
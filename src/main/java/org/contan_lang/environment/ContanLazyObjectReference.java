@@ -0,0 +1,93 @@
+package org.contan_lang.environment;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.syntax.tokens.Token;
+import org.contan_lang.thread.ContanThread;
+import org.contan_lang.variables.ContanObject;
+import org.contan_lang.variables.primitive.ContanVoidObject;
+
+import java.util.function.Supplier;
+
+/**
+ * Variable whose value is created when it is used for the first time.
+ */
+public class ContanLazyObjectReference extends ContanObjectReference {
+    
+    private volatile Supplier<ContanObject<?>> supplier;
+    
+    public ContanLazyObjectReference(ContanEngine contanEngine, String name, Supplier<ContanObject<?>> supplier) {
+        super(contanEngine, name, ContanVoidObject.INSTANCE);
+        this.supplier = supplier;
+    }
+    
+    private void initialize() {
+        if (supplier == null) {
+            return;
+        }
+        
+        synchronized (this) {
+            Supplier<ContanObject<?>> supplier = this.supplier;
+            if (supplier != null) {
+                based = supplier.get();
+                this.supplier = null;
+            }
+        }
+    }
+    
+    @Override
+    public ContanObject<?> getContanObject() throws Exception {
+        initialize();
+        return super.getContanObject();
+    }
+    
+    @Override
+    public void setContanObject(ContanObject<?> contanObject) throws Exception {
+        synchronized (this) {
+            supplier = null;
+            super.setContanObject(contanObject);
+        }
+    }
+    
+    @Override
+    public Object getBasedJavaObject() {
+        initialize();
+        return super.getBasedJavaObject();
+    }
+    
+    @Override
+    public ContanObject<?> invokeFunctionChild(ContanThread contanThread, Token functionName, ContanObject<?>... variables) {
+        initialize();
+        return super.invokeFunctionChild(contanThread, functionName, variables);
+    }
+    
+    @Override
+    public long toLong() {
+        initialize();
+        return super.toLong();
+    }
+    
+    @Override
+    public double toDouble() {
+        initialize();
+        return super.toDouble();
+    }
+    
+    @Override
+    public boolean convertibleToLong() {
+        initialize();
+        return super.convertibleToLong();
+    }
+    
+    @Override
+    public boolean convertibleToDouble() {
+        initialize();
+        return super.convertibleToDouble();
+    }
+    
+    @Override
+    public Object convertToJavaObject() {
+        initialize();
+        return super.convertToJavaObject();
+    }
+    
+}
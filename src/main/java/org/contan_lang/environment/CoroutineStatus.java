@@ -1,14 +1,18 @@
 package org.contan_lang.environment;
 
+import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.variables.ContanObject;
 
 public class CoroutineStatus {
 
+    public final Evaluator evaluator;
+    
     public final long count;
     
     public final ContanObject<?>[] results;
     
-    public CoroutineStatus(long count, ContanObject<?>... results) {
+    public CoroutineStatus(Evaluator evaluator, long count, ContanObject<?>... results) {
+        this.evaluator = evaluator;
         this.count = count;
         this.results = results;
     }
@@ -12,8 +12,11 @@ import org.contan_lang.variables.primitive.JavaClassInstance;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 
 public class Environment {
 
@@ -25,20 +28,55 @@ public class Environment {
     
     protected final ContanThread contanThread;
     
-    protected final Map<String, ContanObjectReference> variableMap = new HashMap<>();
+    //Created when the first variable is stored by name, most environments keep all of their variables in slots
+    protected Map<String, ContanObjectReference> variableMap = null;
+    
+    protected final FrameLayout frameLayout;
+    
+    //Variables defined in the frame layout, the other variables are stored in the variableMap
+    protected ContanObjectReference[] slots;
     
     
     protected Evaluator reEval;
     
+    //Created when the future is requested, so that calls that never yield do not allocate it
     protected JavaContanFuture future = null;
     
+    protected boolean isCompleted = false;
+    
+    protected ContanObject<?> completedResult = null;
+    
     protected ContanObject<?> returnValue = null;
     
     protected Environment returnEnvironmentCache = null;
     
-    protected Map<Evaluator, CoroutineStatus> coroutineStatusMap = new HashMap<>();
+    //Indexed by Evaluator#getCoroutineIndex, created when this environment first yields
+    protected CoroutineStatus[] coroutineStatuses = null;
+    
+    //For evaluators without an index, or whose index is taken by an evaluator of another function
+    protected Map<Evaluator, CoroutineStatus> coroutineStatusMap = null;
+    
+    //Statuses recorded by the previous run, each of them is used once to resume the current run
+    protected CoroutineStatus[] resumeCoroutineStatuses = null;
+    
+    protected Map<Evaluator, CoroutineStatus> resumeCoroutineStatusMap = null;
+    
+    //Evaluator that suspended the current run
+    protected Evaluator suspendedEvaluator = null;
+    
+    //Evaluator that suspended the previous run, the current run replays the function up to it
+    protected Evaluator resumeEvaluator = null;
+    
+    //True while a run of the function is on the stack, guarded by this environment
+    protected boolean running = false;
+    
+    //Resumed run that waits for the suspended run to unwind, guarded by this environment
+    protected Callable<?> pendingResume = null;
     
     protected boolean isCoroutineEnvironment = false;
+    
+    //Set when the function awaits a future, even one that is already done and does not suspend it
+    protected boolean hasAwaited = false;
 
     protected String name = null;
 
@@ -47,34 +85,64 @@ public class Environment {
     public Environment readOnlyEnv = null;
 
     public Environment(ContanEngine contanEngine, @Nullable Environment parent, @NotNull ContanThread contanThread) {
+        this(contanEngine, parent, contanThread, (FrameLayout) null);
+    }
+
+    public Environment(ContanEngine contanEngine, @Nullable Environment parent, @NotNull ContanThread contanThread, @Nullable FrameLayout frameLayout) {
         this.contanEngine = contanEngine;
         this.parent = parent;
         this.contanThread = contanThread;
         this.canHasReturnValue = false;
+        this.frameLayout = frameLayout;
+        this.slots = createSlots(frameLayout);
     }
 
     public Environment(ContanEngine contanEngine, @Nullable Environment parent, @NotNull ContanThread contanThread, Evaluator reEval, boolean canHasReturnValue) {
+        this(contanEngine, parent, contanThread, reEval, canHasReturnValue, null);
+    }
+
+    public Environment(ContanEngine contanEngine, @Nullable Environment parent, @NotNull ContanThread contanThread, Evaluator reEval, boolean canHasReturnValue, @Nullable FrameLayout frameLayout) {
         this.contanEngine = contanEngine;
         this.parent = parent;
         this.contanThread = contanThread;
         this.canHasReturnValue = canHasReturnValue;
+        this.frameLayout = frameLayout;
+        this.slots = createSlots(frameLayout);
         if (canHasReturnValue) {
-            this.future = new JavaContanFuture(StandardClasses.FUTURE.createInstance(contanEngine, contanThread));
-            future.getContanInstance().getEnvironment().createOrSetVariable("javaFuture", new JavaClassInstance(contanEngine, future));
-
             this.reEval = reEval;
         }
     }
     
+    private static final ContanObjectReference[] EMPTY_SLOTS = new ContanObjectReference[0];
+    
+    private static ContanObjectReference[] createSlots(@Nullable FrameLayout frameLayout) {
+        if (frameLayout == null || frameLayout.size() == 0) {
+            return EMPTY_SLOTS;
+        }
+        return new ContanObjectReference[frameLayout.size()];
+    }
+    
     public @Nullable Environment getParent() {return parent;}
     
+    public @Nullable FrameLayout getFrameLayout() {return frameLayout;}
+    
     public ContanObject<?> getReturnValue() {return returnValue;}
     
     public ContanEngine getContanEngine() {return contanEngine;}
     
     public ContanThread getContanThread() {return contanThread;}
     
-    public JavaContanFuture getFuture() {return future;}
+    public synchronized JavaContanFuture getFuture() {
+        if (future == null && canHasReturnValue) {
+            future = new JavaContanFuture(StandardClasses.FUTURE.createInstance(contanEngine, contanThread));
+            future.getContanInstance().getEnvironment().createOrSetVariable("javaFuture", new JavaClassInstance(contanEngine, future));
+            
+            if (isCompleted) {
+                future.complete(completedResult);
+            }
+        }
+        return future;
+    }
 
     public void setReEval(Evaluator reEval) {this.reEval = reEval;}
 
@@ -86,7 +154,12 @@ public class Environment {
 
     public void setCancelStatus(CancelStatus cancelStatus) {this.cancelStatus = cancelStatus;}
     
-    public Map<String, ContanObjectReference> getVariableMap() {return variableMap;}
+    public Map<String, ContanObjectReference> getVariableMap() {
+        if (variableMap == null) {
+            variableMap = new HashMap<>();
+        }
+        return variableMap;
+    }
     
     private boolean returnEnvInitialize = false;
     
@@ -101,28 +174,47 @@ public class Environment {
             return;
         }
         
+        JavaContanFuture future;
+        synchronized (this) {
+            if (this.future == null) {
+                //Passed to the future when it is requested
+                isCompleted = true;
+                completedResult = result;
+                return;
+            }
+            future = this.future;
+        }
+        
         future.complete(result);
     }
     
     public void rerun() {
+        rerun(null, null);
+    }
+    
+    /**
+     * Run the function of this environment again on its thread, after the current run has returned.
+     * The function is evaluated from the start, and the evaluators that recorded a status in the
+     * previous run return their recorded results instead of running again.
+     *
+     * @param evaluator Evaluator that suspended the function, null if there is no result to resume it with
+     * @param result Result that the evaluator returns when the function resumes
+     */
+    public void rerun(@Nullable Evaluator evaluator, @Nullable ContanObject<?> result) {
+        if (!canHasReturnValue) {
+            //Only the environment that holds the coroutine statuses can be resumed
+            Environment returnEnvironment = getReturnEnvironment();
+            if (returnEnvironment != null) {
+                returnEnvironment.rerun(evaluator, result);
+            }
+            return;
+        }
+        
         if (reEval == null) {
             return;
         }
 
-        contanThread.scheduleTask(() -> {
-            ContanObject<?> result = reEval.eval(this);
-
-            if (hasReturnValue()) {
-                ContanObject<?> returnValue = getReturnValue();
-                if (!(returnValue instanceof ContanYieldObject)) {
-                    complete(returnValue);
-                }
-            } else {
-                complete(result);
-            }
-
-            return result;
-        });
+        contanThread.scheduleTask(() -> resume(evaluator, result));
     }
     
     public void rerunImmediately() {
@@ -130,7 +222,29 @@ public class Environment {
             return;
         }
         
-        ContanObject<?> result = reEval.eval(this);
+        resume(null, null);
+    }
+    
+    private @Nullable ContanObject<?> resume(@Nullable Evaluator evaluator, @Nullable ContanObject<?> result) {
+        synchronized (this) {
+            if (running) {
+                //Scheduled again by endRun
+                pendingResume = () -> resume(evaluator, result);
+                return null;
+            }
+            running = true;
+        }
+        
+        if (evaluator != null) {
+            setCoroutineStatus(evaluator, 0, result);
+        }
+        
+        //Reset the yield of the previous run
+        returnValue = null;
+        
+        startResume();
+        ContanObject<?> runResult = reEval.eval(this);
+        endRun();
     
         if (hasReturnValue()) {
             ContanObject<?> returnValue = getReturnValue();
@@ -138,7 +252,46 @@ public class Environment {
                 complete(returnValue);
             }
         } else {
-            complete(result);
+            complete(runResult);
+        }
+        
+        return runResult;
+    }
+    
+    /**
+     * Evaluate the function of this environment for the first time, on the thread that created the environment.
+     *
+     * @param evaluator Evaluator of the function
+     * @return Result of the evaluator
+     */
+    public ContanObject<?> run(Evaluator evaluator) {
+        //Not shared with other threads yet
+        running = true;
+        
+        ContanObject<?> result = evaluator.eval(this);
+        endRun();
+        return result;
+    }
+    
+    /**
+     * The suspended run still records coroutine statuses while it unwinds, after the await has
+     * subscribed to the future, so a resumed run waits until the suspended run has returned.
+     * Only a run that suspended can be resumed, the others end without taking the monitor.
+     */
+    private void endRun() {
+        if (suspendedEvaluator == null) {
+            return;
+        }
+        
+        Callable<?> pendingResume;
+        synchronized (this) {
+            running = false;
+            pendingResume = this.pendingResume;
+            this.pendingResume = null;
+        }
+        
+        if (pendingResume != null) {
+            contanThread.scheduleTask(pendingResume);
         }
     }
     
@@ -180,13 +333,87 @@ public class Environment {
         return returnEnvironment.isCoroutineEnvironment;
     }
     
+    /**
+     * Mark the function of this environment as one that awaits, so that its caller gets a future
+     * whether the function suspended or not.
+     */
+    public void setAwaited() {
+        Environment returnEnvironment = getReturnEnvironment();
+        if (returnEnvironment == null) {
+            return;
+        }
+        
+        returnEnvironment.hasAwaited = true;
+    }
+    
+    public boolean hasAwaited() {
+        Environment returnEnvironment = getReturnEnvironment();
+        return returnEnvironment != null && returnEnvironment.hasAwaited;
+    }
+    
     public @Nullable CoroutineStatus getCoroutineStatus(Evaluator evaluator) {
         Environment returnEnvironment = getReturnEnvironment();
         if (returnEnvironment == null) {
             return null;
         }
         
-        return returnEnvironment.coroutineStatusMap.get(evaluator);
+        return returnEnvironment.takeResumeCoroutineStatus(evaluator);
+    }
+    
+    private @Nullable CoroutineStatus takeResumeCoroutineStatus(Evaluator evaluator) {
+        CoroutineStatus coroutineStatus = null;
+        
+        int index = evaluator.getCoroutineIndex();
+        if (index != -1 && resumeCoroutineStatuses != null && index < resumeCoroutineStatuses.length) {
+            coroutineStatus = resumeCoroutineStatuses[index];
+            if (coroutineStatus != null && coroutineStatus.evaluator == evaluator) {
+                resumeCoroutineStatuses[index] = null;
+            } else {
+                coroutineStatus = null;
+            }
+        }
+        
+        if (coroutineStatus == null && resumeCoroutineStatusMap != null) {
+            coroutineStatus = resumeCoroutineStatusMap.remove(evaluator);
+        }
+        
+        if (evaluator == resumeEvaluator) {
+            //The run has caught up with the point where the previous run stopped, the rest is stale
+            resumeCoroutineStatuses = null;
+            resumeCoroutineStatusMap = null;
+            resumeEvaluator = null;
+        }
+        
+        return coroutineStatus;
+    }
+    
+    /**
+     * Evaluators record their status when they yield, and the next run uses each status once to skip
+     * the work done before the yield. The statuses left over once the run reaches the evaluator that
+     * suspended the previous run are discarded, so an evaluator that runs again in a loop starts over.
+     */
+    private void startResume() {
+        resumeCoroutineStatuses = coroutineStatuses;
+        resumeCoroutineStatusMap = coroutineStatusMap;
+        resumeEvaluator = suspendedEvaluator;
+        coroutineStatuses = null;
+        coroutineStatusMap = null;
+        suspendedEvaluator = null;
+    }
+    
+    /**
+     * Set the evaluator that suspends the current run, such as an await or a delay.
+     * The next run replays the function up to this evaluator and goes on from there.
+     *
+     * @param evaluator Evaluator that yields
+     */
+    public void setSuspendedEvaluator(Evaluator evaluator) {
+        Environment returnEnvironment = getReturnEnvironment();
+        if (returnEnvironment == null) {
+            return;
+        }
+        
+        returnEnvironment.suspendedEvaluator = evaluator;
     }
     
     public void setCoroutineStatus(Evaluator evaluator, long count, ContanObject<?>... results) {
@@ -195,7 +422,30 @@ public class Environment {
             return;
         }
         
-        returnEnvironment.coroutineStatusMap.put(evaluator, new CoroutineStatus(count, results));
+        returnEnvironment.putCoroutineStatus(new CoroutineStatus(evaluator, count, results));
+    }
+    
+    private void putCoroutineStatus(CoroutineStatus coroutineStatus) {
+        int index = coroutineStatus.evaluator.getCoroutineIndex();
+        
+        if (index != -1) {
+            if (coroutineStatuses == null) {
+                coroutineStatuses = new CoroutineStatus[Math.max(8, index + 1)];
+            } else if (index >= coroutineStatuses.length) {
+                coroutineStatuses = Arrays.copyOf(coroutineStatuses, Math.max(coroutineStatuses.length * 2, index + 1));
+            }
+            
+            CoroutineStatus current = coroutineStatuses[index];
+            if (current == null || current.evaluator == coroutineStatus.evaluator) {
+                coroutineStatuses[index] = coroutineStatus;
+                return;
+            }
+        }
+        
+        if (coroutineStatusMap == null) {
+            coroutineStatusMap = new HashMap<>();
+        }
+        coroutineStatusMap.put(coroutineStatus.evaluator, coroutineStatus);
     }
     
     public boolean hasReturnValue() {
@@ -240,8 +490,16 @@ public class Environment {
     }
     
     public @Nullable ContanObjectReference getVariable(String name) {
-        ContanObjectReference variable = variableMap.get(name);
-        if(variable != null) return variable;
+        ContanObjectReference variable;
+        if (frameLayout != null) {
+            variable = getSlotVariable(frameLayout.getSlot(name));
+            if (variable != null) return variable;
+        }
+        
+        if (variableMap != null) {
+            variable = variableMap.get(name);
+            if (variable != null) return variable;
+        }
 
         if (readOnlyEnv != null) {
             variable = readOnlyEnv.getVariable(name);
@@ -253,14 +511,110 @@ public class Environment {
         return parent.getVariable(name);
     }
     
+    /**
+     * Get a variable by the slot resolved by the parser.
+     * If the environments on the way were not created with the expected layouts,
+     * or may hold a variable with the same name, the variable is searched by name.
+     *
+     * @param frameLayout Layout of this environment
+     * @param depth Number of parents to go up
+     * @param slot Slot in the layout of the found parent
+     * @param name Name of the variable
+     * @return Variable, null if not found
+     */
+    public @Nullable ContanObjectReference getVariable(FrameLayout frameLayout, int depth, int slot, String name) {
+        Environment environment = this;
+        
+        for (int i = 0; i < depth; i++) {
+            if (environment == null || environment.frameLayout != frameLayout
+                    || environment.readOnlyEnv != null || (environment.variableMap != null && !environment.variableMap.isEmpty())) {
+                return getVariable(name);
+            }
+            
+            environment = environment.parent;
+            frameLayout = frameLayout.parent;
+        }
+        
+        if (environment != null && environment.frameLayout == frameLayout) {
+            ContanObjectReference variable = environment.getSlotVariable(slot);
+            if (variable != null) return variable;
+        }
+        
+        return getVariable(name);
+    }
+    
+    private @Nullable ContanObjectReference getSlotVariable(int slot) {
+        if (slot < 0 || slot >= slots.length) return null;
+        return slots[slot];
+    }
+    
+    private int getSlot(String name) {
+        if (frameLayout == null) return -1;
+        
+        int slot = frameLayout.getSlot(name);
+        if (slot >= slots.length) {
+            slots = Arrays.copyOf(slots, frameLayout.size());
+        }
+        return slot;
+    }
+    
     public void createVariable(String name, ContanObject<?> contanObject) {
+        createVariable(getSlot(name), name, contanObject);
+    }
+    
+    /**
+     * Create a variable in the slot resolved by the parser.
+     *
+     * @param slot Slot in the layout of this environment, -1 to store the variable by name
+     * @param name Name of the variable
+     * @param contanObject Initial value
+     */
+    public void createVariable(int slot, String name, ContanObject<?> contanObject) {
+        if (slot != -1) {
+            if (slots[slot] == null) {
+                slots[slot] = new ContanObjectReference(contanEngine, name, contanObject);
+            }
+            return;
+        }
+        
+        Map<String, ContanObjectReference> variableMap = getVariableMap();
         if (variableMap.containsKey(name)) return;
     
         ContanObjectReference contanVariableReference = new ContanObjectReference(contanEngine, name, contanObject);
         variableMap.put(name, contanVariableReference);
     }
 
+    /**
+     * Create a variable whose value is created when it is used for the first time.
+     *
+     * @param name Name of the variable
+     * @param supplier Creates the value
+     */
+    public void createLazyVariable(String name, Supplier<ContanObject<?>> supplier) {
+        int slot = getSlot(name);
+        if (slot != -1) {
+            if (slots[slot] == null) {
+                slots[slot] = new ContanLazyObjectReference(contanEngine, name, supplier);
+            }
+            return;
+        }
+        
+        Map<String, ContanObjectReference> variableMap = getVariableMap();
+        if (variableMap.containsKey(name)) return;
+        
+        variableMap.put(name, new ContanLazyObjectReference(contanEngine, name, supplier));
+    }
+
     public void createConstVariable(String name, ContanObject<?> contanObject) {
+        int slot = getSlot(name);
+        if (slot != -1) {
+            if (slots[slot] == null) {
+                slots[slot] = new ContanObjectReference(contanEngine, name, contanObject, true);
+            }
+            return;
+        }
+        
+        Map<String, ContanObjectReference> variableMap = getVariableMap();
         if (variableMap.containsKey(name)) return;
 
         ContanObjectReference contanVariableReference = new ContanObjectReference(contanEngine, name, contanObject, true);
@@ -268,7 +622,19 @@ public class Environment {
     }
     
     public void createOrSetVariable(String name, ContanObject<?> contanObject) {
-        ContanObjectReference reference = variableMap.computeIfAbsent(name, k -> new ContanObjectReference(contanEngine, name, contanObject));
+        ContanObjectReference reference;
+        
+        int slot = getSlot(name);
+        if (slot != -1) {
+            reference = slots[slot];
+            if (reference == null) {
+                reference = new ContanObjectReference(contanEngine, name, contanObject);
+                slots[slot] = reference;
+            }
+        } else {
+            reference = getVariableMap().computeIfAbsent(name, k -> new ContanObjectReference(contanEngine, name, contanObject));
+        }
+        
         try {
             reference.setContanObject(contanObject);
         } catch (Exception e) {/**/}
@@ -276,7 +642,14 @@ public class Environment {
 
     public Environment createMergedEnvironment(Environment environment) {
         Environment newEnv = new Environment(contanEngine, this, contanThread);
-        newEnv.variableMap.putAll(environment.variableMap);
+        if (environment.variableMap != null) {
+            newEnv.getVariableMap().putAll(environment.variableMap);
+        }
+        for (ContanObjectReference reference : environment.slots) {
+            if (reference != null) {
+                newEnv.getVariableMap().putIfAbsent(reference.getName(), reference);
+            }
+        }
         return newEnv;
     }
     
@@ -0,0 +1,47 @@
+package org.contan_lang.environment;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Variable slots of the {@link Environment}s created for one block.
+ * <p>
+ * The layout is filled by the parser while the block is parsed, so that variable references
+ * can be resolved to a (depth, slot) pair and read by index at runtime.
+ */
+public class FrameLayout {
+
+    //Layout of the environment that the runtime environment is created in, null if it is not known statically
+    public final @Nullable FrameLayout parent;
+
+    private final Map<String, Integer> slotMap = new HashMap<>();
+
+    public FrameLayout(@Nullable FrameLayout parent) {
+        this.parent = parent;
+    }
+
+    public int addVariable(String name) {
+        Integer slot = slotMap.get(name);
+        if (slot != null) {
+            return slot;
+        }
+
+        int newSlot = slotMap.size();
+        slotMap.put(name, newSlot);
+        return newSlot;
+    }
+
+    /**
+     * @param name Name of the variable
+     * @return Slot of the variable, -1 if the variable is not defined in this layout
+     */
+    public int getSlot(String name) {
+        Integer slot = slotMap.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    public int size() {return slotMap.size();}
+
+}
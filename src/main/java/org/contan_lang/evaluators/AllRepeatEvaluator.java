@@ -4,6 +4,7 @@ import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.CancelStatus;
 import org.contan_lang.environment.CoroutineStatus;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.primitive.*;
 
@@ -16,15 +17,24 @@ public class AllRepeatEvaluator implements Evaluator {
     private final Evaluator evaluator;
     private final String name;
     private final String variableName;
+    private final FrameLayout frameLayout;
+    private int coroutineIndex = -1;
 
-    public AllRepeatEvaluator(ContanEngine contanEngine, Evaluator iteratorEval, Evaluator evaluator, String name, String variableName) {
+    public AllRepeatEvaluator(ContanEngine contanEngine, Evaluator iteratorEval, Evaluator evaluator, String name, String variableName, FrameLayout frameLayout) {
         this.contanEngine = contanEngine;
         this.iteratorEval = iteratorEval;
         this.evaluator = evaluator;
         this.name = name;
         this.variableName = variableName;
+        this.frameLayout = frameLayout;
     }
 
+    @Override
+    public int getCoroutineIndex() {return coroutineIndex;}
+
+    @Override
+    public void setCoroutineIndex(int coroutineIndex) {this.coroutineIndex = coroutineIndex;}
+
     @Override
     public ContanObject<?> eval(Environment environment) {
 
@@ -32,23 +42,23 @@ public class AllRepeatEvaluator implements Evaluator {
         CoroutineStatus coroutineStatus = environment.getCoroutineStatus(this);
 
         if (coroutineStatus == null) {
-            newEnv = new Environment(contanEngine, environment, environment.getContanThread());
+            newEnv = new Environment(contanEngine, environment, environment.getContanThread(), frameLayout);
             newEnv.setName(name);
         } else {
             newEnv = (Environment) ((JavaClassInstance) coroutineStatus.results[0]).getBasedJavaObject();
         }
 
 
-        ContanObject<?> iterableObject = iteratorEval.eval(environment);
-        if (environment.hasYieldReturnValue() || iterableObject == ContanYieldObject.INSTANCE) {
-            environment.setCoroutineStatus(this, 0, new JavaClassInstance(contanEngine, newEnv));
-            return ContanYieldObject.INSTANCE;
-        }
-
         Object iterable;
         if (coroutineStatus != null && coroutineStatus.count >= 1) {
             iterable = ((JavaClassInstance) coroutineStatus.results[1]).getBasedJavaObject();
         } else {
+            ContanObject<?> iterableObject = iteratorEval.eval(environment);
+            if (environment.hasYieldReturnValue() || iterableObject == ContanYieldObject.INSTANCE) {
+                environment.setCoroutineStatus(this, 0, new JavaClassInstance(contanEngine, newEnv));
+                return ContanYieldObject.INSTANCE;
+            }
+            
             iterable = iterableObject.getBasedJavaObject();
         }
 
@@ -60,12 +70,19 @@ public class AllRepeatEvaluator implements Evaluator {
                 iterator = ((Iterable<?>) iterable).iterator();
             }
 
-            while (iterator.hasNext()) {
-                Object element = iterator.next();
-                if (element instanceof ContanObject<?>) {
-                    newEnv.createOrSetVariable(variableName, (ContanObject<?>) element);
+            //The element that yielded is resumed before moving to the next one
+            boolean resume = coroutineStatus != null && coroutineStatus.count >= 2;
+
+            while (resume || iterator.hasNext()) {
+                if (resume) {
+                    resume = false;
                 } else {
-                    newEnv.createOrSetVariable(variableName, new JavaClassInstance(contanEngine, element));
+                    Object element = iterator.next();
+                    if (element instanceof ContanObject<?>) {
+                        newEnv.createOrSetVariable(variableName, (ContanObject<?>) element);
+                    } else {
+                        newEnv.createOrSetVariable(variableName, new JavaClassInstance(contanEngine, element));
+                    }
                 }
 
                 ContanObject<?> result = evaluator.eval(newEnv);
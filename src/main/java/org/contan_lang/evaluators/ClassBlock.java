@@ -2,6 +2,7 @@ package org.contan_lang.evaluators;
 
 import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.runtime.ContanRuntimeUtil;
 import org.contan_lang.syntax.tokens.Token;
@@ -12,7 +13,6 @@ import org.contan_lang.variables.primitive.ContanVoidObject;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ClassBlock {
 
@@ -26,7 +26,8 @@ public class ClassBlock {
 
     private final Token[] initializeArgs;
     
-    private ClassBlock superClass = null;
+    //Resolved by initializeClassInfo, and read by other threads that see the class initialized
+    private volatile ClassBlock superClass = null;
     
     private final Evaluator superClassEval;
 
@@ -36,6 +37,20 @@ public class ClassBlock {
 
     public final Set<Token> lazyCheckVariables = new HashSet<>();
 
+    //Functions of this class and its super classes by name, indexed by the number of arguments,
+    //created by initializeClassInfo and published by isInitialized
+    private Map<String, MethodEntry[]> dispatchTable = null;
+
+    //Nearest super class that dispatches functions by itself, functions not in the table are looked up in it
+    private ClassBlock dispatchSuperClass = null;
+
+    //Super classes and this class in the order of initialization, created by initializeClassInfo and published by isInitialized
+    private ClassBlock[] initializerChain = null;
+
+    //Slots of the fields of the instances, shared by all instances of this class,
+    //created by initializeClassInfo and published by isInitialized
+    private FrameLayout instanceLayout = null;
+
 
     public ClassBlock(Token className, String classPath, Environment moduleEnvironment, @Nullable Evaluator superClassEval, Token... initializeArgs) {
         this.className = className;
@@ -62,14 +77,44 @@ public class ClassBlock {
     public @Nullable List<FunctionBlock> getFunctionsByName(String name) {return functionMap.get(name);}
 
 
-    private final AtomicBoolean isInitialized = new AtomicBoolean(false);
+    //Written last by initializeClassInfo, so that a thread that reads true sees everything it created
+    private volatile boolean isInitialized = false;
+
+    //Set while the thread that holds the lock initializes this class
+    private boolean initializing = false;
 
+    /**
+     * Resolve the super class and create the dispatch table, the initializer chain and the instance layout of this class.
+     * Other threads that call this method wait until the first one has done it.
+     *
+     * @param environment Environment to evaluate the super class expression in
+     */
     public void initializeClassInfo(Environment environment) {
-        if (isInitialized.getAndSet(true)) {
+        if (isInitialized) {
             return;
         }
 
+        synchronized (this) {
+            //Also reached again by the same thread if the super class expression refers back to this class
+            if (isInitialized || initializing) {
+                return;
+            }
+
+            initializing = true;
+            try {
+                initialize(environment);
+                isInitialized = true;
+            } finally {
+                initializing = false;
+            }
+        }
+    }
+
+    private void initialize(Environment environment) {
         if (superClassEval == null) {
+            createDispatchTable();
+            createInitializerChain();
+            createInstanceLayout();
             return;
         }
         
@@ -81,26 +126,16 @@ public class ClassBlock {
             return;
         }
         
-        superClass = (ClassBlock) extendsResult.getBasedJavaObject();
+        ClassBlock superClass = (ClassBlock) extendsResult.getBasedJavaObject();
         superClass.initializeClassInfo(superClass.moduleEnvironment);
-
-        ClassBlock currentClass = this;
-        List<ClassBlock> superClasses = new ArrayList<>();
-
-        while (true) {
-            currentClass = currentClass.superClass;
-
-            if (currentClass == null) {
-                break;
-            }
-
-            superClasses.add(currentClass);
-        }
-        Collections.reverse(superClasses);
+        this.superClass = superClass;
+        
+        ClassBlock[] initializerChain = createInitializerChain();
 
         //Check lazy variables
         var : for (Token variable : lazyCheckVariables) {
-            for (ClassBlock classBlock : superClasses) {
+            for (int i = 0; i < initializerChain.length - 1; i++) {
+                ClassBlock classBlock = initializerChain[i];
                 if (classBlock.classVariables.contains(variable.getText())) {
                     continue var;
                 }
@@ -108,7 +143,91 @@ public class ClassBlock {
 
             ContanRuntimeError.E0001.throwError("", null, variable);
         }
+        
+        createDispatchTable();
+        createInstanceLayout();
+    }
+    
+    private ClassBlock[] createInitializerChain() {
+        List<ClassBlock> classes = new ArrayList<>();
+        for (ClassBlock currentClass = this; currentClass != null; currentClass = currentClass.superClass) {
+            classes.add(currentClass);
+        }
+        Collections.reverse(classes);
+        
+        ClassBlock[] chain = classes.toArray(new ClassBlock[0]);
+        initializerChain = chain;
+        return chain;
     }
+    
+    private void createInstanceLayout() {
+        ClassBlock[] initializerChain = this.initializerChain;
+        
+        FrameLayout layout = new FrameLayout(null);
+        layout.addVariable("this");
+        if (initializerChain.length > 1) {
+            layout.addVariable("super");
+        }
+        for (Token initializeArg : initializeArgs) {
+            layout.addVariable(initializeArg.getText());
+        }
+        for (ClassBlock classBlock : initializerChain) {
+            classBlock.classVariables.forEach(layout::addVariable);
+        }
+        
+        instanceLayout = layout;
+    }
+    
+    private void createDispatchTable() {
+        Map<String, MethodEntry[]> table = new HashMap<>();
+        
+        if (superClass != null) {
+            if (superClass.hasCustomDispatch()) {
+                dispatchSuperClass = superClass;
+            } else {
+                superClass.dispatchTable.forEach((name, entries) -> table.put(name, entries.clone()));
+                dispatchSuperClass = superClass.dispatchSuperClass;
+            }
+        }
+        
+        functionMap.forEach((name, functions) -> {
+            MethodEntry[] entries = table.getOrDefault(name, new MethodEntry[0]);
+            //Only the first function with the same number of arguments is called
+            for (int i = functions.size() - 1; i >= 0; i--) {
+                FunctionBlock functionBlock = functions.get(i);
+                int argumentLength = functionBlock.getArgs().length;
+                if (entries.length <= argumentLength) {
+                    entries = Arrays.copyOf(entries, argumentLength + 1);
+                }
+                entries[argumentLength] = new MethodEntry(functionBlock, this);
+            }
+            table.put(name, entries);
+        });
+        
+        dispatchTable = table;
+    }
+    
+    /**
+     * Find the function of this class or its super classes, which is called for the name and the number of arguments.
+     *
+     * @param functionName Name of the function
+     * @param variableLength Number of arguments
+     * @return Function and the class that defines it, null if it is not defined in the classes dispatched by ClassBlock
+     */
+    public @Nullable MethodEntry findFunction(String functionName, int variableLength) {
+        initializeClassInfo(moduleEnvironment);
+        
+        MethodEntry[] entries = dispatchTable.get(functionName);
+        if (entries == null || variableLength >= entries.length) {
+            return null;
+        }
+        return entries[variableLength];
+    }
+    
+    /**
+     * @return True if a subclass of ClassBlock changes how the functions are invoked
+     */
+    public boolean hasCustomDispatch() {return getClass() != ClassBlock.class;}
 
     public void addFunctionBlock(FunctionBlock functionBlock) {
         List<FunctionBlock> functions = functionMap.computeIfAbsent(functionBlock.getFunctionName().getText(), k -> new ArrayList<>());
@@ -118,11 +237,19 @@ public class ClassBlock {
     public ContanClassInstance createInstance(ContanEngine contanEngine, ContanThread contanThread, ContanObject<?>... contanObjects) {
         initializeClassInfo(moduleEnvironment);
 
-        Environment environment = new Environment(contanEngine, moduleEnvironment, contanThread);
+        Environment environment = new Environment(contanEngine, moduleEnvironment, contanThread, instanceLayout);
 
         ContanClassInstance instance = new ContanClassInstance(contanEngine,this, environment);
         environment.createConstVariable("this", instance);
 
+        ClassBlock[] initializerChain = this.initializerChain;
+
+        //All classes in the chain share the environment, 'super' is the instance of the root class
+        if (initializerChain.length > 1) {
+            ClassBlock rootClass = initializerChain[0];
+            environment.createLazyVariable("super", () -> new ContanClassInstance(contanEngine, rootClass, environment));
+        }
+
         for (int i = 0; i < initializeArgs.length; i++) {
             if (i < contanObjects.length) {
                 environment.createVariable(initializeArgs[i].getText(), contanObjects[i]);
@@ -132,22 +259,7 @@ public class ClassBlock {
         }
 
 
-        ClassBlock currentClass = this;
-        List<ClassBlock> superClasses = new ArrayList<>();
-        superClasses.add(this);
-
-        while (true) {
-            currentClass = currentClass.superClass;
-
-            if (currentClass == null) {
-                break;
-            }
-
-            superClasses.add(currentClass);
-        }
-        Collections.reverse(superClasses);
-
-        for (ClassBlock classBlock : superClasses) {
+        for (ClassBlock classBlock : initializerChain) {
             environment.readOnlyEnv = classBlock.moduleEnvironment;
             for (Evaluator evaluator : classBlock.initializers) {
                 evaluator.eval(environment);
@@ -160,22 +272,13 @@ public class ClassBlock {
 
 
     public ContanObject<?> invokeFunction(ContanThread contanThread, Environment classInstanceEnvironment, Token functionName, boolean ignoreNotFound, ContanObject<?>... variables) {
-        List<FunctionBlock> functions = functionMap.get(functionName.getText());
-        if (functions == null) {
-            if (!ignoreNotFound && superClass == null){
-                ContanRuntimeError.E0011.throwError("", null, functionName);
-                return ContanVoidObject.INSTANCE;
-            }
-        } else {
-            for (FunctionBlock functionBlock : functions) {
-                if (functionBlock.getArgs().length == variables.length) {
-                    return functionBlock.eval(classInstanceEnvironment.createMergedEnvironment(moduleEnvironment), functionName, contanThread, variables);
-                }
-            }
+        MethodEntry methodEntry = findFunction(functionName.getText(), variables.length);
+        if (methodEntry != null) {
+            return invokeFunction(contanThread, classInstanceEnvironment, functionName, methodEntry, variables);
         }
         
-        if (superClass != null) {
-            return superClass.invokeFunction(contanThread, classInstanceEnvironment, functionName, ignoreNotFound, variables);
+        if (dispatchSuperClass != null) {
+            return dispatchSuperClass.invokeFunction(contanThread, classInstanceEnvironment, functionName, ignoreNotFound, variables);
         }
     
         if (!ignoreNotFound){
@@ -184,43 +287,44 @@ public class ClassBlock {
         return ContanVoidObject.INSTANCE;
     }
     
+    /**
+     * Invoke the function found by {@link #findFunction(String, int)}.
+     */
+    public ContanObject<?> invokeFunction(ContanThread contanThread, Environment classInstanceEnvironment, Token functionName, MethodEntry methodEntry, ContanObject<?>... variables) {
+        return methodEntry.functionBlock.eval(classInstanceEnvironment.createMergedEnvironment(methodEntry.classBlock.moduleEnvironment), functionName, contanThread, variables);
+    }
+    
     public ContanObject<?> invokeFunction(ContanThread contanThread, Environment classInstanceEnvironment, String functionName, ContanObject<?>... variables) {
-        List<FunctionBlock> functions = functionMap.get(functionName);
-        if (functions != null) {
-            for (FunctionBlock functionBlock : functions) {
-                if (functionBlock.getArgs().length == variables.length) {
-                    return functionBlock.eval(classInstanceEnvironment, contanThread, variables);
-                }
-            }
+        MethodEntry methodEntry = findFunction(functionName, variables.length);
+        if (methodEntry != null) {
+            return methodEntry.functionBlock.eval(classInstanceEnvironment, contanThread, variables);
         }
         
-        if (superClass != null) {
-            return superClass.invokeFunction(contanThread, classInstanceEnvironment, functionName, variables);
+        if (dispatchSuperClass != null) {
+            return dispatchSuperClass.invokeFunction(contanThread, classInstanceEnvironment, functionName, variables);
         }
         
         return ContanVoidObject.INSTANCE;
     }
 
     public boolean hasFunction(String functionName, int variableLength) {
-        List<FunctionBlock> functions = functionMap.get(functionName);
-
-        if (functions == null) {
-            if (superClass == null) {
-                return false;
-            }
-        } else {
-            for (FunctionBlock functionBlock : functions) {
-                if (functionBlock.getArgs().length == variableLength) {
-                    return true;
-                }
-            }
+        if (findFunction(functionName, variableLength) != null) {
+            return true;
         }
 
-        if (superClass != null) {
-            return superClass.hasFunction(functionName, variableLength);
+        return dispatchSuperClass != null && dispatchSuperClass.hasFunction(functionName, variableLength);
+    }
+    
+    
+    public static class MethodEntry {
+        public final FunctionBlock functionBlock;
+        //Class that defines the function
+        public final ClassBlock classBlock;
+        
+        public MethodEntry(FunctionBlock functionBlock, ClassBlock classBlock) {
+            this.functionBlock = functionBlock;
+            this.classBlock = classBlock;
         }
-
-        return false;
     }
 
 }
@@ -7,4 +7,11 @@ public interface Evaluator {
     
     ContanObject<?> eval(Environment environment);
     
+    /**
+     * @return Index of this evaluator in the coroutine statuses of its function, -1 if not assigned
+     */
+    default int getCoroutineIndex() {return -1;}
+    
+    default void setCoroutineIndex(int coroutineIndex) {}
+    
 }
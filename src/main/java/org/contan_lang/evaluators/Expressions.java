@@ -11,10 +11,20 @@ public class Expressions implements Evaluator {
     
     private final Evaluator[] expressions;
     
+    private int coroutineIndex = -1;
+    
     public Expressions(Evaluator... expressions) {
         this.expressions = expressions;
     }
     
+    public Evaluator[] getExpressions() {return expressions;}
+    
+    @Override
+    public int getCoroutineIndex() {return coroutineIndex;}
+    
+    @Override
+    public void setCoroutineIndex(int coroutineIndex) {this.coroutineIndex = coroutineIndex;}
+    
     @Override
     public ContanObject<?> eval(Environment environment) {
         if (environment.isCoroutineEnvironment()) {
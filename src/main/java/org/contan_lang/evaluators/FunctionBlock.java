@@ -1,7 +1,9 @@
 package org.contan_lang.evaluators;
 
 import org.contan_lang.ContanEngine;
+import org.contan_lang.compiler.FunctionCompiler;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.thread.ContanThread;
@@ -18,43 +20,106 @@ public class FunctionBlock {
     
     private final Token[] args;
     
+    private final FrameLayout frameLayout;
+    
+    private final int[] argSlots;
+    
+    //Generated by FunctionCompiler once the function has been called often enough
+    private volatile @Nullable Evaluator compiledEvaluator = null;
+    
+    private int invocationCount = 0;
+    
+    private boolean compileTried = false;
+    
     public FunctionBlock(ContanEngine contanEngine, Token functionName, Evaluator evaluator, Token... args) {
+        this(contanEngine, functionName, evaluator, null, args);
+    }
+    
+    public FunctionBlock(ContanEngine contanEngine, Token functionName, Evaluator evaluator, @Nullable FrameLayout frameLayout, Token... args) {
         this.contanEngine = contanEngine;
         this.functionName = functionName;
         this.evaluator = evaluator;
         this.args = args;
+        this.frameLayout = frameLayout;
+        this.argSlots = new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            argSlots[i] = frameLayout == null ? -1 : frameLayout.getSlot(args[i].getText());
+        }
     }
     
     public Token getFunctionName() {return functionName;}
     
     public Token[] getArgs() {return args;}
     
+    /**
+     * @return Interpreted evaluator of the function
+     */
+    public Evaluator getEvaluator() {return evaluator;}
+    
+    public boolean isCompiled() {return compiledEvaluator != null;}
+    
     
     public ContanObject<?> eval(@Nullable Environment parentEnvironment, Token token, ContanThread contanThread, ContanObject<?>... contanObjects) {
 
-        Environment environment = new Environment(contanEngine, parentEnvironment, contanThread, evaluator, true);
+        Environment environment = new Environment(contanEngine, parentEnvironment, contanThread, evaluator, true, frameLayout);
         if (args.length != contanObjects.length) {
             ContanRuntimeError.E0016.throwError("", null, token);
         }
         
         for (int i = 0; i < args.length; i++) {
-            environment.createVariable(args[i].getText(), contanObjects[i]);
+            environment.createVariable(argSlots[i], args[i].getText(), contanObjects[i]);
         }
         
-        ContanObject<?> variable = evaluator.eval(environment);
+        Evaluator runEvaluator = getRunEvaluator();
+        
+        ContanObject<?> variable = environment.run(runEvaluator);
         if (environment.hasReturnValue()) {
             if (environment.hasYieldReturnValue()) {
                 return environment.getFuture().getContanInstance();
-            } else {
-                return environment.getReturnValue();
             }
-        } else {
-            return variable;
+            variable = environment.getReturnValue();
+        }
+        
+        //A function that awaits returns a future, also when every future it awaited was already done
+        if (environment.hasAwaited()) {
+            environment.complete(variable);
+            return environment.getFuture().getContanInstance();
         }
+        return variable;
     }
     
     public ContanObject<?> eval(@Nullable Environment parentEnvironment, ContanThread contanThread, ContanObject<?>... contanObjects) {
         return eval(parentEnvironment, functionName, contanThread, contanObjects);
     }
     
+    /**
+     * Get the evaluator to run this call with.
+     * The environment keeps the interpreted evaluator to resume with, since compiled functions never suspend.
+     *
+     * @return Compiled evaluator if the function has been compiled, otherwise the interpreted one
+     */
+    private Evaluator getRunEvaluator() {
+        Evaluator compiledEvaluator = this.compiledEvaluator;
+        if (compiledEvaluator != null) {
+            return compiledEvaluator;
+        }
+        
+        if (!compileTried) {
+            int compileThreshold = contanEngine.getCompileThreshold();
+            
+            //Counted without a lock, a lost count only delays the compilation
+            if (compileThreshold != -1 && ++invocationCount >= compileThreshold) {
+                compileTried = true;
+                compiledEvaluator = FunctionCompiler.compile(evaluator);
+                this.compiledEvaluator = compiledEvaluator;
+                
+                if (compiledEvaluator != null) {
+                    return compiledEvaluator;
+                }
+            }
+        }
+        
+        return evaluator;
+    }
+    
 }
@@ -3,6 +3,7 @@ package org.contan_lang.evaluators;
 import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.CoroutineStatus;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.variables.ContanObject;
@@ -16,20 +17,35 @@ public class IfEvaluator implements Evaluator {
     private final Token token;
     private final Evaluator termsEvaluator;
     private final Evaluator trueExpression;
+    private final FrameLayout frameLayout;
+    private int coroutineIndex = -1;
     
     private Evaluator linkedElseEvaluator = null;
     
-    public IfEvaluator(ContanEngine contanEngine, Token token, Evaluator termsEvaluator, @Nullable Evaluator trueExpression) {
+    public IfEvaluator(ContanEngine contanEngine, Token token, Evaluator termsEvaluator, @Nullable Evaluator trueExpression, FrameLayout frameLayout) {
         this.contanEngine = contanEngine;
         this.token = token;
         this.termsEvaluator = termsEvaluator;
         this.trueExpression = trueExpression;
+        this.frameLayout = frameLayout;
     }
     
     public void setLinkedElseEvaluator(Evaluator linkedElseEvaluator) {
         this.linkedElseEvaluator = linkedElseEvaluator;
     }
     
+    public Evaluator getTermsEvaluator() {return termsEvaluator;}
+    
+    public @Nullable Evaluator getTrueExpression() {return trueExpression;}
+    
+    public @Nullable Evaluator getLinkedElseEvaluator() {return linkedElseEvaluator;}
+    
+    @Override
+    public int getCoroutineIndex() {return coroutineIndex;}
+    
+    @Override
+    public void setCoroutineIndex(int coroutineIndex) {this.coroutineIndex = coroutineIndex;}
+    
     @Override
     public ContanObject<?> eval(Environment environment) {
 
@@ -43,9 +59,7 @@ public class IfEvaluator implements Evaluator {
                 return ContanVoidObject.INSTANCE;
             }
 
-            if (!(termResult.getBasedJavaObject() instanceof Boolean)) {
-                ContanRuntimeError.E0024.throwError("", null, token);
-            }
+            test(termResult);
         } else {
             termResult = coroutineStatus.results[0];
         }
@@ -54,7 +68,7 @@ public class IfEvaluator implements Evaluator {
         
         if (bool) {
             if(trueExpression != null) {
-                Environment nestedEnv = new Environment(contanEngine, environment, environment.getContanThread());
+                Environment nestedEnv = createEnvironment(environment);
                 ContanObject<?> result = trueExpression.eval(nestedEnv);
 
                 if (environment.hasYieldReturnValue() || result == ContanYieldObject.INSTANCE) {
@@ -76,4 +90,22 @@ public class IfEvaluator implements Evaluator {
         return ContanVoidObject.INSTANCE;
     }
     
+    /**
+     * @param termResult Evaluated terms
+     * @return True if the true expression is evaluated
+     */
+    public boolean test(ContanObject<?> termResult) {
+        if (!(termResult.getBasedJavaObject() instanceof Boolean)) {
+            ContanRuntimeError.E0024.throwError("", null, token);
+        }
+        return (Boolean) termResult.getBasedJavaObject();
+    }
+    
+    /**
+     * @return Environment that the true expression is evaluated in
+     */
+    public Environment createEnvironment(Environment environment) {
+        return new Environment(contanEngine, environment, environment.getContanThread(), frameLayout);
+    }
+    
 }
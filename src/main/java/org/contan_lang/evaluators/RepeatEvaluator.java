@@ -4,6 +4,7 @@ import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.CancelStatus;
 import org.contan_lang.environment.CoroutineStatus;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.variables.ContanObject;
@@ -19,15 +20,28 @@ public class RepeatEvaluator implements Evaluator {
     private final Evaluator termsEvaluator;
     private final Evaluator evaluator;
     private final String name;
+    private final FrameLayout frameLayout;
+    private int coroutineIndex = -1;
 
-    public RepeatEvaluator(ContanEngine contanEngine, Token token, @Nullable Evaluator termsEvaluator, Evaluator evaluator, String name) {
+    public RepeatEvaluator(ContanEngine contanEngine, Token token, @Nullable Evaluator termsEvaluator, Evaluator evaluator, String name, FrameLayout frameLayout) {
         this.contanEngine = contanEngine;
         this.token = token;
         this.termsEvaluator = termsEvaluator;
         this.evaluator = evaluator;
         this.name = name;
+        this.frameLayout = frameLayout;
     }
 
+    public @Nullable Evaluator getTermsEvaluator() {return termsEvaluator;}
+    
+    public Evaluator getEvaluator() {return evaluator;}
+
+    @Override
+    public int getCoroutineIndex() {return coroutineIndex;}
+
+    @Override
+    public void setCoroutineIndex(int coroutineIndex) {this.coroutineIndex = coroutineIndex;}
+
     @Override
     public ContanObject<?> eval(Environment environment) {
 
@@ -35,8 +49,7 @@ public class RepeatEvaluator implements Evaluator {
         CoroutineStatus coroutineStatus = environment.getCoroutineStatus(this);
 
         if (coroutineStatus == null) {
-            newEnv = new Environment(contanEngine, environment, environment.getContanThread());
-            newEnv.setName(name);
+            newEnv = createEnvironment(environment);
         } else {
             newEnv = (Environment) ((JavaClassInstance) coroutineStatus.results[0]).getBasedJavaObject();
         }
@@ -61,11 +74,7 @@ public class RepeatEvaluator implements Evaluator {
                 return ContanYieldObject.INSTANCE;
             }
 
-            if (!(termResult.convertibleToLong())) {
-                ContanRuntimeError.E0025.throwError("", null, token);
-            }
-
-            long maxNumberOfRepeat = termResult.toLong();
+            long maxNumberOfRepeat = getNumberOfRepeat(termResult);
 
             long start = 0;
             if (coroutineStatus != null) {
@@ -88,5 +97,25 @@ public class RepeatEvaluator implements Evaluator {
 
         return ContanVoidObject.INSTANCE;
     }
+    
+    /**
+     * @return Environment that the repeated expression is evaluated in
+     */
+    public Environment createEnvironment(Environment environment) {
+        Environment newEnv = new Environment(contanEngine, environment, environment.getContanThread(), frameLayout);
+        newEnv.setName(name);
+        return newEnv;
+    }
+    
+    /**
+     * @param termResult Evaluated terms
+     * @return Number of repeats
+     */
+    public long getNumberOfRepeat(ContanObject<?> termResult) {
+        if (!(termResult.convertibleToLong())) {
+            ContanRuntimeError.E0025.throwError("", null, token);
+        }
+        return termResult.toLong();
+    }
 
 }
@@ -0,0 +1,63 @@
+package org.contan_lang.operators;
+
+import org.contan_lang.variables.ContanObject;
+import org.contan_lang.variables.primitive.ContanF64;
+import org.contan_lang.variables.primitive.ContanI64;
+import org.contan_lang.variables.primitive.ContanString;
+
+/**
+ * Types of the operands that a binary operator has been evaluated with.
+ * Operators run the path for the observed types first, and use the generic path once the types change.
+ */
+public class OperandTypes {
+    
+    public static final byte UNINITIALIZED = 0;
+    
+    //Both operands are ContanI64
+    public static final byte I64 = 1;
+    
+    //Both operands are ContanI64 or ContanF64, and at least one of them is ContanF64
+    public static final byte F64 = 2;
+    
+    //Left operand is ContanString
+    public static final byte STRING = 3;
+    
+    //Operands of different types have been seen
+    public static final byte GENERIC = 4;
+    
+    
+    public static boolean isF64(ContanObject<?> left, ContanObject<?> right) {
+        if (left instanceof ContanF64) {
+            return right instanceof ContanF64 || right instanceof ContanI64;
+        }
+        return left instanceof ContanI64 && right instanceof ContanF64;
+    }
+    
+    public static byte getTypes(ContanObject<?> left, ContanObject<?> right) {
+        if (left instanceof ContanI64 && right instanceof ContanI64) {
+            return I64;
+        } else if (isF64(left, right)) {
+            return F64;
+        } else if (left instanceof ContanString) {
+            return STRING;
+        }
+        return GENERIC;
+    }
+    
+    /**
+     * @param operandTypes Types the operator has been evaluated with
+     * @return Types the operator is specialized for after it is evaluated with the operands
+     */
+    public static byte update(byte operandTypes, ContanObject<?> left, ContanObject<?> right) {
+        if (operandTypes == GENERIC) {
+            return GENERIC;
+        }
+        
+        byte types = getTypes(left, right);
+        if (operandTypes == UNINITIALIZED || operandTypes == types) {
+            return types;
+        }
+        return GENERIC;
+    }
+    
+}
@@ -16,14 +16,24 @@ public abstract class Operator implements Evaluator {
     
     protected final Evaluator[] operators;
     
+    protected int coroutineIndex = -1;
+    
     public Operator(ContanEngine contanEngine, Token token, Evaluator... operators) {
         this.contanEngine = contanEngine;
         this.token = token;
         this.operators = operators;
     }
 
+    public Evaluator[] getOperators() {return operators;}
+    
     @Override
     public abstract ContanObject<?> eval(Environment environment);
+    
+    @Override
+    public int getCoroutineIndex() {return coroutineIndex;}
+    
+    @Override
+    public void setCoroutineIndex(int coroutineIndex) {this.coroutineIndex = coroutineIndex;}
 
 
     private ContanYieldObject evalLeftAndRight(Environment environment) {
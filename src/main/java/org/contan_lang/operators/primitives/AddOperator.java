@@ -6,6 +6,7 @@ import org.contan_lang.environment.CoroutineStatus;
 import org.contan_lang.environment.Environment;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.evaluators.Evaluator;
+import org.contan_lang.operators.OperandTypes;
 import org.contan_lang.operators.Operator;
 import org.contan_lang.runtime.ContanRuntimeUtil;
 import org.contan_lang.syntax.tokens.Token;
@@ -17,6 +18,9 @@ import org.contan_lang.variables.primitive.ContanYieldObject;
 
 public class AddOperator extends Operator {
     
+    //Types of the operands observed by this operator, see OperandTypes
+    private byte operandTypes = OperandTypes.UNINITIALIZED;
+    
     public AddOperator(ContanEngine contanEngine, Token token, Evaluator... operators) {
         super(contanEngine, token, operators);
     }
@@ -43,9 +47,44 @@ public class AddOperator extends Operator {
             return ContanYieldObject.INSTANCE;
         }
         
+        return calculate(contanObject0, contanObject1);
+    }
+    
+    /**
+     * Calculate the result from the evaluated operands.
+     */
+    public ContanObject<?> calculate(ContanObject<?> contanObject0, ContanObject<?> contanObject1) {
         contanObject0 = ContanRuntimeUtil.removeReference(token, contanObject0);
         contanObject1 = ContanRuntimeUtil.removeReference(token, contanObject1);
         
+        switch (operandTypes) {
+            case OperandTypes.I64: {
+                if (contanObject0 instanceof ContanI64 && contanObject1 instanceof ContanI64) {
+                    return ContanI64.valueOf(contanEngine, contanObject0.toLong() + contanObject1.toLong());
+                }
+                break;
+            }
+            
+            case OperandTypes.F64: {
+                if (OperandTypes.isF64(contanObject0, contanObject1)) {
+                    return new ContanF64(contanEngine, contanObject0.toDouble() + contanObject1.toDouble());
+                }
+                break;
+            }
+            
+            case OperandTypes.STRING: {
+                if (contanObject0 instanceof ContanString) {
+                    return new ContanString(contanEngine, contanObject0.toString() + contanObject1.getBasedJavaObject().toString());
+                }
+                break;
+            }
+        }
+        
+        operandTypes = OperandTypes.update(operandTypes, contanObject0, contanObject1);
+        return evalGeneric(contanObject0, contanObject1);
+    }
+    
+    private ContanObject<?> evalGeneric(ContanObject<?> contanObject0, ContanObject<?> contanObject1) {
         Object first = contanObject0.getBasedJavaObject();
         Object second = contanObject1.getBasedJavaObject();
         
@@ -93,7 +132,7 @@ public class AddOperator extends Operator {
                 sum += (Long) second;
             }
             
-            return new ContanI64(contanEngine, sum);
+            return ContanI64.valueOf(contanEngine, sum);
         }
 
         return new ContanString(contanEngine, first.toString() + second.toString());
@@ -3,6 +3,7 @@ package org.contan_lang.operators.primitives;
 import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.CoroutineStatus;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.thread.ContanThread;
@@ -10,8 +11,8 @@ import org.contan_lang.variables.ContanObject;
 
 public class AsyncTaskOperator extends TaskOperator {
     
-    public AsyncTaskOperator(ContanEngine contanEngine, Token token, Evaluator... operators) {
-        super(contanEngine, token, operators);
+    public AsyncTaskOperator(ContanEngine contanEngine, Token token, FrameLayout frameLayout, Evaluator... operators) {
+        super(contanEngine, token, frameLayout, operators);
     }
     
     @Override
@@ -21,9 +22,9 @@ public class AsyncTaskOperator extends TaskOperator {
         Environment newEnvironment;
 
         if (coroutineStatus == null) {
-            ContanThread asyncThread = contanEngine.getNextAsyncThread();
+            ContanThread asyncThread = contanEngine.getNextAsyncThread(environment.getContanThread());
 
-            newEnvironment = new Environment(contanEngine, environment, asyncThread, operators[0], true);
+            newEnvironment = new Environment(contanEngine, environment, asyncThread, operators[0], true, frameLayout);
             newEnvironment.rerun();
 
             environment.setCoroutineStatus(this, 0, newEnvironment.getFuture().getContanInstance());
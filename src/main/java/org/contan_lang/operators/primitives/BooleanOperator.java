@@ -43,7 +43,14 @@ public class BooleanOperator extends BooleanBaseOperator {
             environment.setCoroutineStatus(this, 0, contanObject0);
             return ContanYieldObject.INSTANCE;
         }
+        
+        return calculate(contanObject0, contanObject1);
+    }
     
+    /**
+     * Calculate the result from the evaluated operands.
+     */
+    public ContanObject<Boolean> calculate(ContanObject<?> contanObject0, ContanObject<?> contanObject1) {
         contanObject0 = ContanRuntimeUtil.removeReference(token, contanObject0);
         contanObject1 = ContanRuntimeUtil.removeReference(token, contanObject1);
     
@@ -57,11 +64,11 @@ public class BooleanOperator extends BooleanBaseOperator {
         
         switch (operatorType) {
             case OPERATOR_AND: {
-                return new ContanBoolean(contanEngine, (Boolean) first && (Boolean) second);
+                return ContanBoolean.valueOf((Boolean) first && (Boolean) second);
             }
             
             case OPERATOR_OR: {
-                return new ContanBoolean(contanEngine, (Boolean) first || (Boolean) second);
+                return ContanBoolean.valueOf((Boolean) first || (Boolean) second);
             }
             
             default: {
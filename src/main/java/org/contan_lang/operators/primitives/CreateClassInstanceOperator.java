@@ -9,14 +9,13 @@ import org.contan_lang.evaluators.ClassBlock;
 import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.runtime.ContanRuntimeUtil;
 import org.contan_lang.runtime.JavaContanFuture;
+import org.contan_lang.runtime.JavaMethodCallSite;
+import org.contan_lang.runtime.JavaMethodTable.MethodMatch;
 import org.contan_lang.standard.classes.StandardClasses;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.variables.ContanObject;
-import org.contan_lang.variables.NumberType;
 import org.contan_lang.variables.primitive.*;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Parameter;
 import java.util.Arrays;
 
 public class CreateClassInstanceOperator implements Evaluator {
@@ -29,6 +28,11 @@ public class CreateClassInstanceOperator implements Evaluator {
 
     private final Evaluator[] args;
 
+    //Cache of the Java constructors invoked by this operator
+    private final JavaMethodCallSite javaConstructorCallSite = new JavaMethodCallSite(null);
+
+    private int coroutineIndex = -1;
+
 
     public CreateClassInstanceOperator(ContanEngine contanEngine, Token nameToken, Evaluator left, Evaluator... args) {
         this.contanEngine = contanEngine;
@@ -38,6 +42,12 @@ public class CreateClassInstanceOperator implements Evaluator {
     }
 
 
+    @Override
+    public int getCoroutineIndex() {return coroutineIndex;}
+    
+    @Override
+    public void setCoroutineIndex(int coroutineIndex) {this.coroutineIndex = coroutineIndex;}
+    
     @Override
     public ContanObject<?> eval(Environment environment) {
         int startIndex = 0;
@@ -89,66 +99,10 @@ public class CreateClassInstanceOperator implements Evaluator {
 
             Class<?> javaClass = (Class<?>) leftResult.getBasedJavaObject();
             try {
-                methodLoop:
-                for (Constructor<?> constructor : javaClass.getConstructors()) {
-                    if (constructor.getParameterCount() != variables.length) continue;
-
-                    Object[] convertedArgs = new Object[variables.length];
-                    Parameter[] parameters = constructor.getParameters();
-                    for (int i = 0; i < variables.length; i++) {
-                        Parameter parameter = parameters[i];
-                        ContanObject<?> variable = variables[i];
-                        Class<?> parameterType = parameter.getType();
-
-                        if (variable.convertibleToDouble()) {
-                            double original = variable.toDouble();
-                            NumberType numberType = NumberType.getType(original);
-
-                            if (parameterType == int.class || parameterType == Integer.class) {
-                                if (numberType != NumberType.INTEGER) {
-                                    continue methodLoop;
-                                }
-
-                                convertedArgs[i] = (int) original;
-                                continue;
-                            } else if (parameterType == long.class || parameterType == Long.class) {
-                                if (numberType != NumberType.LONG && numberType != NumberType.INTEGER) {
-                                    continue methodLoop;
-                                }
-
-                                convertedArgs[i] = (long) original;
-                                continue;
-                            } else if (parameterType == float.class || parameterType == Float.class) {
-                                if (numberType != NumberType.FLOAT && numberType != NumberType.INTEGER) {
-                                    continue methodLoop;
-                                }
-
-                                convertedArgs[i] = (float) original;
-                                continue;
-                            } else if (parameterType == double.class || parameterType == Double.class) {
-                                convertedArgs[i] = original;
-                                continue;
-                            }
-                        }
-    
-                        if (variable == ContanVoidObject.INSTANCE) {
-                            convertedArgs[i] = null;
-                        } else {
-                            Object converted = variable.convertToJavaObject();
-    
-                            if (converted instanceof Boolean) {
-                                if (parameterType != boolean.class && parameterType != Boolean.class) {
-                                    continue methodLoop;
-                                }
-                            } else if (!parameterType.isInstance(converted)) {
-                                continue methodLoop;
-                            }
-    
-                            convertedArgs[i] = converted;
-                        }
-                    }
-
-                    Object instance = constructor.newInstance(convertedArgs);
+                MethodMatch match = javaConstructorCallSite.find(javaClass, variables);
+                
+                if (match != null) {
+                    Object instance = match.invoke(null, variables);
                     return new JavaClassInstance(contanEngine, instance);
                 }
 
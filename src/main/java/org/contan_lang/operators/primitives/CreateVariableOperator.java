@@ -2,26 +2,38 @@ package org.contan_lang.operators.primitives;
 
 import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.operators.Operator;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.primitive.ContanVoidObject;
+import org.jetbrains.annotations.Nullable;
 
 public class CreateVariableOperator extends Operator {
     
     protected final String variableName;
     
-    public CreateVariableOperator(ContanEngine contanEngine, Token token, Evaluator... operator) {
+    private final FrameLayout frameLayout;
+    
+    private final int slot;
+    
+    public CreateVariableOperator(ContanEngine contanEngine, Token token, @Nullable FrameLayout frameLayout, Evaluator... operator) {
         super(contanEngine, token, operator);
         this.variableName = token.getText();
+        this.frameLayout = frameLayout;
+        this.slot = frameLayout == null ? -1 : frameLayout.getSlot(variableName);
     }
     
     public String getVariableName() {return variableName;}
     
     @Override
     public ContanObject<?> eval(Environment environment) {
-        environment.createVariable(variableName, ContanVoidObject.INSTANCE);
+        if (slot != -1 && environment.getFrameLayout() == frameLayout) {
+            environment.createVariable(slot, variableName, ContanVoidObject.INSTANCE);
+        } else {
+            environment.createVariable(variableName, ContanVoidObject.INSTANCE);
+        }
         return ContanVoidObject.INSTANCE;
     }
     
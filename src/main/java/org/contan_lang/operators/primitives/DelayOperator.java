@@ -55,7 +55,6 @@ public class DelayOperator extends Operator {
         tickBasedThread.scheduleTask(() -> {
             Environment returnEnv = environment.getReturnEnvironment();
             if (returnEnv != null) {
-                returnEnv.setReturnValue(null);
                 returnEnv.rerun();
             }
             
@@ -63,6 +62,7 @@ public class DelayOperator extends Operator {
         }, delay);
         environment.setReturnValue(ContanYieldObject.INSTANCE);
         environment.setCoroutineStatus(this, 0);
+        environment.setSuspendedEvaluator(this);
         
         return ContanYieldObject.INSTANCE;
     }
@@ -3,6 +3,7 @@ package org.contan_lang.operators.primitives;
 import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.CoroutineStatus;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.runtime.ContanRuntimeUtil;
@@ -14,8 +15,8 @@ import org.contan_lang.variables.primitive.ContanYieldObject;
 
 public class DelayTaskOperator extends TaskOperator {
     
-    public DelayTaskOperator(ContanEngine contanEngine, Token token, Evaluator... operators) {
-        super(contanEngine, token, operators);
+    public DelayTaskOperator(ContanEngine contanEngine, Token token, FrameLayout frameLayout, Evaluator... operators) {
+        super(contanEngine, token, frameLayout, operators);
     }
     
     @Override
@@ -48,7 +49,7 @@ public class DelayTaskOperator extends TaskOperator {
                 return null;
             }
         
-            newEnvironment = new Environment(contanEngine, environment, tickBasedThread, operators[1], true);
+            newEnvironment = new Environment(contanEngine, environment, tickBasedThread, operators[1], true, frameLayout);
             
             tickBasedThread.scheduleTask(() -> operators[1].eval(newEnvironment), delay);
             
@@ -4,14 +4,20 @@ import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.CoroutineStatus;
 import org.contan_lang.environment.Environment;
 import org.contan_lang.evaluators.Evaluator;
+import org.contan_lang.operators.OperandTypes;
 import org.contan_lang.runtime.ContanRuntimeUtil;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.primitive.ContanBoolean;
+import org.contan_lang.variables.primitive.ContanI64;
+import org.contan_lang.variables.primitive.ContanString;
 import org.contan_lang.variables.primitive.ContanYieldObject;
 
 public class EqualOperator extends BooleanBaseOperator {
     
+    //Types of the operands observed by this operator, see OperandTypes
+    private byte operandTypes = OperandTypes.UNINITIALIZED;
+    
     public EqualOperator(ContanEngine contanEngine, Token token, Evaluator... operators) {
         super(contanEngine, token, operators);
     }
@@ -37,10 +43,45 @@ public class EqualOperator extends BooleanBaseOperator {
             environment.setCoroutineStatus(this, 0, contanObject0);
             return ContanYieldObject.INSTANCE;
         }
+        
+        return calculate(contanObject0, contanObject1);
+    }
     
+    /**
+     * Calculate the result from the evaluated operands.
+     */
+    public ContanObject<Boolean> calculate(ContanObject<?> contanObject0, ContanObject<?> contanObject1) {
         contanObject0 = ContanRuntimeUtil.removeReference(token, contanObject0);
         contanObject1 = ContanRuntimeUtil.removeReference(token, contanObject1);
         
+        switch (operandTypes) {
+            case OperandTypes.I64: {
+                if (contanObject0 instanceof ContanI64 && contanObject1 instanceof ContanI64) {
+                    return ContanBoolean.valueOf(contanObject0.toLong() == contanObject1.toLong());
+                }
+                break;
+            }
+            
+            case OperandTypes.F64: {
+                if (OperandTypes.isF64(contanObject0, contanObject1)) {
+                    return ContanBoolean.valueOf(contanObject0.toDouble() == contanObject1.toDouble());
+                }
+                break;
+            }
+            
+            case OperandTypes.STRING: {
+                if (contanObject0 instanceof ContanString) {
+                    return ContanBoolean.valueOf(contanObject0.toString().equals(contanObject1.getBasedJavaObject()));
+                }
+                break;
+            }
+        }
+        
+        operandTypes = OperandTypes.update(operandTypes, contanObject0, contanObject1);
+        return evalGeneric(contanObject0, contanObject1);
+    }
+    
+    private ContanObject<Boolean> evalGeneric(ContanObject<?> contanObject0, ContanObject<?> contanObject1) {
         Object first = contanObject0.getBasedJavaObject();
         Object second = contanObject1.getBasedJavaObject();
         
@@ -73,7 +114,7 @@ public class EqualOperator extends BooleanBaseOperator {
                     temp2 = (Double) second;
                 }
                 
-                return new ContanBoolean(contanEngine, temp1 == temp2);
+                return ContanBoolean.valueOf(temp1 == temp2);
             }
             
             
@@ -94,10 +135,10 @@ public class EqualOperator extends BooleanBaseOperator {
                 temp2 = (Long) second;
             }
             
-            return new ContanBoolean(contanEngine, temp1 == temp2);
+            return ContanBoolean.valueOf(temp1 == temp2);
         }
         
-        return new ContanBoolean(contanEngine, first.equals(second));
+        return ContanBoolean.valueOf(first.equals(second));
     }
     
 }
@@ -4,60 +4,65 @@ import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.ContanJavaBaseObjectReference;
 import org.contan_lang.environment.ContanObjectReference;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.environment.expection.ContanRuntimeError;
+import org.contan_lang.environment.expection.ContanRuntimeException;
 import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.operators.Operator;
 import org.contan_lang.ContanModule;
 import org.contan_lang.runtime.ContanRuntimeUtil;
+import org.contan_lang.runtime.JavaField;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.primitive.*;
+import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Field;
+import java.util.Arrays;
 
 public class GetFieldOperator extends Operator {
 
+    private static final int MAX_JAVA_MEMBERS = 4;
+
+    private static final JavaMember[] NO_JAVA_MEMBERS = new JavaMember[0];
+
+
     private final Evaluator left;
 
+    //Java fields are returned as references only when they are assigned to
+    private boolean assignmentTarget = false;
+
+    //Members of the Java classes read so far, replaced as a whole so that they can be read without a lock
+    private volatile JavaMember[] javaMembers = NO_JAVA_MEMBERS;
+
+    //Layout of the class instance that was read last time, and the slot of the field in it
+    private volatile ClassField classField = null;
+
     public GetFieldOperator(ContanEngine contanEngine, Token fieldName, Evaluator left) {
         super(contanEngine, fieldName);
         this.left = left;
     }
 
+    public Evaluator getLeft() {return left;}
+    
+    public void setAssignmentTarget() {this.assignmentTarget = true;}
+
     @Override
     public ContanObject<?> eval(Environment environment) {
 
         ContanObject<?> leftResult = left.eval(environment);
         leftResult = ContanRuntimeUtil.removeReference(token, leftResult);
-        
+
         if (environment.hasYieldReturnValue() || leftResult == ContanYieldObject.INSTANCE) {
             return ContanYieldObject.INSTANCE;
         }
 
         if (leftResult instanceof JavaClassObject) {
-            Class<?> clazz = (Class<?>) leftResult.getBasedJavaObject();
-            //Get static field
-            try {
-                Field field = clazz.getField(token.getText());
-                return new ContanJavaBaseObjectReference(contanEngine, token.getText(), ContanVoidObject.INSTANCE, field, null);
-            } catch (NoSuchFieldException e) {
-                for (Object content : clazz.getEnumConstants()) {
-                    if (content.toString().equals(token.getText())) {
-                        return new JavaClassInstance(contanEngine, content);
-                    }
-                }
-
-                ContanRuntimeError.E0015.throwError("", e, token);
-            }
+            //Get static field or enum constant
+            return getJavaMember((Class<?>) leftResult.getBasedJavaObject(), true).get(null);
         } else if (leftResult instanceof JavaClassInstance) {
-            Class<?> clazz = leftResult.getBasedJavaObject().getClass();
             //Get instance field
-            try {
-                Field field = clazz.getField(token.getText());
-                return new ContanJavaBaseObjectReference(contanEngine, token.getText(), ContanVoidObject.INSTANCE, field, leftResult.getBasedJavaObject());
-            } catch (NoSuchFieldException e) {
-                ContanRuntimeError.E0015.throwError("", e, token);
-            }
+            Object javaObject = leftResult.getBasedJavaObject();
+            return getJavaMember(javaObject.getClass(), false).get(javaObject);
         } else if (leftResult instanceof ContanModuleObject) {
             ContanModule contanModule = (ContanModule) leftResult.getBasedJavaObject();
             ContanObject<?> result = contanModule.getModuleEnvironment().getVariable(token.getText());
@@ -67,7 +72,7 @@ public class GetFieldOperator extends Operator {
             return result;
         } else if (leftResult instanceof ContanClassInstance) {
             Environment instanceEnvironment = ((ContanClassInstance) leftResult).getEnvironment();
-            ContanObject<?> result = instanceEnvironment.getVariable(token.getText());
+            ContanObject<?> result = getClassField(instanceEnvironment);
             if (result == null) {
                 ContanRuntimeError.E0015.throwError("", null, token);
             }
@@ -78,4 +83,136 @@ public class GetFieldOperator extends Operator {
         return null;
     }
 
+    private @Nullable ContanObjectReference getClassField(Environment instanceEnvironment) {
+        FrameLayout instanceLayout = instanceEnvironment.getFrameLayout();
+        if (instanceLayout == null) {
+            return instanceEnvironment.getVariable(token.getText());
+        }
+        
+        ClassField classField = this.classField;
+        if (classField == null || classField.instanceLayout != instanceLayout) {
+            classField = new ClassField(instanceLayout, instanceLayout.getSlot(token.getText()));
+            this.classField = classField;
+        }
+        
+        if (classField.slot == -1) {
+            return instanceEnvironment.getVariable(token.getText());
+        }
+        return instanceEnvironment.getVariable(instanceLayout, 0, classField.slot, token.getText());
+    }
+
+    /**
+     * Get the member of the class, cached for the first {@link #MAX_JAVA_MEMBERS} classes read by this operator.
+     * The members of the other classes are looked up on each read.
+     */
+    private JavaMember getJavaMember(Class<?> clazz, boolean isStatic) {
+        JavaMember[] javaMembers = this.javaMembers;
+        for (JavaMember javaMember : javaMembers) {
+            if (javaMember.clazz == clazz && javaMember.isStatic == isStatic) {
+                return javaMember;
+            }
+        }
+
+        JavaMember javaMember = new JavaMember(clazz, isStatic);
+        if (javaMembers.length < MAX_JAVA_MEMBERS) {
+            synchronized (this) {
+                JavaMember[] current = this.javaMembers;
+                if (current.length < MAX_JAVA_MEMBERS) {
+                    JavaMember[] newJavaMembers = Arrays.copyOf(current, current.length + 1);
+                    newJavaMembers[current.length] = javaMember;
+                    this.javaMembers = newJavaMembers;
+                }
+            }
+        }
+        return javaMember;
+    }
+
+
+    private static class ClassField {
+
+        private final FrameLayout instanceLayout;
+
+        private final int slot;
+
+        private ClassField(FrameLayout instanceLayout, int slot) {
+            this.instanceLayout = instanceLayout;
+            this.slot = slot;
+        }
+
+    }
+
+
+    private class JavaMember {
+
+        private final Class<?> clazz;
+
+        private final boolean isStatic;
+
+        private final @Nullable JavaField field;
+
+        //Enum constant, or the value of a static final field once it is read
+        private volatile ContanObject<?> constant = null;
+
+        //Set if the class has no such member
+        private final @Nullable Exception notFound;
+
+        private JavaMember(Class<?> clazz, boolean isStatic) {
+            this.clazz = clazz;
+            this.isStatic = isStatic;
+
+            JavaField field = null;
+            Exception notFound = null;
+            try {
+                field = new JavaField(clazz.getField(token.getText()));
+            } catch (NoSuchFieldException e) {
+                notFound = e;
+
+                Object[] enumConstants = clazz.getEnumConstants();
+                if (isStatic && enumConstants != null) {
+                    for (Object content : enumConstants) {
+                        if (content.toString().equals(token.getText())) {
+                            constant = new JavaClassInstance(contanEngine, content);
+                            notFound = null;
+                            break;
+                        }
+                    }
+                }
+            }
+
+            this.field = field;
+            this.notFound = notFound;
+        }
+
+        private ContanObject<?> get(@Nullable Object javaObject) {
+            ContanObject<?> constant = this.constant;
+            if (constant != null && (field == null || !assignmentTarget)) {
+                return constant;
+            }
+
+            if (field == null) {
+                ContanRuntimeError.E0015.throwError("", notFound, token);
+                return null;
+            }
+
+            if (assignmentTarget) {
+                return new ContanJavaBaseObjectReference(contanEngine, token.getText(), ContanVoidObject.INSTANCE, field, javaObject);
+            }
+
+            try {
+                Object result = field.get(javaObject);
+                ContanObject<?> value = ContanJavaBaseObjectReference.toContanObject(contanEngine, result);
+                if (result != null && field.isConstant()) {
+                    this.constant = value;
+                }
+                return value;
+            } catch (ContanRuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                ContanRuntimeError.E0015.throwError("", e, token);
+                return null;
+            }
+        }
+
+    }
+
 }
@@ -3,26 +3,60 @@ package org.contan_lang.operators.primitives;
 import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.ContanObjectReference;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.operators.Operator;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.primitive.JavaClassInstance;
+import org.jetbrains.annotations.Nullable;
 
 public class GetVariableOperator extends Operator {
     
     private final Token targetVariableNameToken;
     
-    public GetVariableOperator(ContanEngine contanEngine, Token targetVariableNameToken, Operator... operators) {
+    private final FrameLayout frameLayout;
+    
+    //Number of environments to go up to the one that defines the variable, -1 if not resolved
+    private int depth = -1;
+    
+    private int slot = -1;
+    
+    public GetVariableOperator(ContanEngine contanEngine, Token targetVariableNameToken, @Nullable FrameLayout frameLayout, Operator... operators) {
         super(contanEngine, targetVariableNameToken, operators);
         this.targetVariableNameToken = targetVariableNameToken;
+        this.frameLayout = frameLayout;
     }
     
     public Token getTargetVariableNameToken() {return targetVariableNameToken;}
     
+    /**
+     * Resolve the variable to the innermost layout that defines it.
+     * Called once all layouts of the module are complete.
+     */
+    public void resolve() {
+        String name = targetVariableNameToken.getText();
+        
+        int depth = 0;
+        for (FrameLayout layout = frameLayout; layout != null; layout = layout.parent) {
+            int slot = layout.getSlot(name);
+            if (slot != -1) {
+                this.depth = depth;
+                this.slot = slot;
+                return;
+            }
+            depth++;
+        }
+    }
+    
     @Override
     public ContanObject<?> eval(Environment environment) {
-        ContanObjectReference variable = environment.getVariable(targetVariableNameToken.getText());
+        ContanObjectReference variable;
+        if (depth == -1) {
+            variable = environment.getVariable(targetVariableNameToken.getText());
+        } else {
+            variable = environment.getVariable(frameLayout, depth, slot, targetVariableNameToken.getText());
+        }
 
         if (variable == null) {
             if (targetVariableNameToken.getText().equals("@CURRENT_THREAD")) {
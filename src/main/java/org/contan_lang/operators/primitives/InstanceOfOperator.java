@@ -68,14 +68,14 @@ public class InstanceOfOperator extends Operator {
                 }
             }
 
-            return new ContanBoolean(contanEngine, isInstanceOfClass);
+            return ContanBoolean.valueOf(isInstanceOfClass);
         } else if (contanObject0 instanceof ContanPrimitiveObject<?> && contanObject1 instanceof JavaClassObject) {
             Object javaObject = contanObject0.getBasedJavaObject();
             Class<?> clazz = (Class<?>) contanObject1.getBasedJavaObject();
 
-            return new ContanBoolean(contanEngine, clazz.isInstance(javaObject));
+            return ContanBoolean.valueOf(clazz.isInstance(javaObject));
         }
 
-        return new ContanBoolean(contanEngine, false);
+        return ContanBoolean.valueOf(false);
     }
 }
@@ -21,14 +21,22 @@ public class InvertSignOperator extends Operator {
     @Override
     public ContanObject<?> eval(Environment environment) {
         ContanObject<?> rightResult = operators[0].eval(environment);
-        rightResult = ContanRuntimeUtil.removeReference(token, rightResult);
 
         if (environment.hasYieldReturnValue() || rightResult == ContanYieldObject.INSTANCE) {
             return ContanYieldObject.INSTANCE;
         }
 
+        return calculate(rightResult);
+    }
+    
+    /**
+     * Calculate the result from the evaluated operand.
+     */
+    public ContanObject<?> calculate(ContanObject<?> rightResult) {
+        rightResult = ContanRuntimeUtil.removeReference(token, rightResult);
+        
         if (rightResult.convertibleToLong()) {
-            return new ContanI64(contanEngine, rightResult.toLong() * -1);
+            return ContanI64.valueOf(contanEngine, rightResult.toLong() * -1);
         } else if (rightResult.convertibleToDouble()) {
             return new ContanF64(contanEngine, rightResult.toDouble() * -1.0);
         }
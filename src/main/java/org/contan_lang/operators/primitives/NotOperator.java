@@ -25,6 +25,13 @@ public class NotOperator extends Operator {
             return ContanYieldObject.INSTANCE;
         }
 
+        return calculate(rightResult);
+    }
+    
+    /**
+     * Calculate the result from the evaluated operand.
+     */
+    public ContanObject<?> calculate(ContanObject<?> rightResult) {
         rightResult = ContanRuntimeUtil.removeReference(token, rightResult);
         Object based = rightResult.getBasedJavaObject();
 
@@ -33,7 +40,7 @@ public class NotOperator extends Operator {
             return null;
         }
 
-        return new ContanBoolean(contanEngine, !(Boolean) based);
+        return ContanBoolean.valueOf(!(Boolean) based);
     }
 
 }
@@ -9,8 +9,10 @@ import org.contan_lang.evaluators.ClassBlock;
 import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.evaluators.FunctionBlock;
 import org.contan_lang.operators.Operator;
+import org.contan_lang.runtime.ClassMethodCallSite;
 import org.contan_lang.runtime.ContanRuntimeUtil;
 import org.contan_lang.runtime.JavaContanFuture;
+import org.contan_lang.runtime.JavaMethodCallSite;
 import org.contan_lang.standard.classes.StandardClasses;
 import org.contan_lang.standard.functions.StandardFunctions;
 import org.contan_lang.syntax.exception.ContanParseException;
@@ -19,6 +21,7 @@ import org.contan_lang.thread.ContanThread;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.primitive.ContanClassInstance;
 import org.contan_lang.variables.primitive.ContanFunctionExpression;
+import org.contan_lang.variables.primitive.ContanPrimitiveObject;
 import org.contan_lang.variables.primitive.ContanYieldObject;
 import org.jetbrains.annotations.Nullable;
 
@@ -38,16 +41,26 @@ public class PreLinkedFunctionOperator extends Operator {
     
     private Environment moduleEnvironment;
     
+    //Cache of the Java methods invoked on the left
+    private final @Nullable JavaMethodCallSite javaMethodCallSite;
+    
+    //Cache of the functions of the Contan classes invoked on 'this' or the left
+    private final ClassMethodCallSite classMethodCallSite;
+    
     public PreLinkedFunctionOperator(ContanEngine contanEngine, Token functionName, @Nullable Evaluator left, Evaluator... args) {
         super(contanEngine, functionName, args);
         this.contanEngine = contanEngine;
         this.functionName = functionName;
         this.left = left;
         this.args = args;
+        this.javaMethodCallSite = left == null ? null : new JavaMethodCallSite(functionName.getText());
+        this.classMethodCallSite = new ClassMethodCallSite(functionName.getText(), args.length);
     }
     
     public Token getFunctionName() {return functionName;}
     
+    public @Nullable Evaluator getLeft() {return left;}
+    
     public Evaluator[] getArgs() {return args;}
     
     
@@ -134,6 +147,11 @@ public class PreLinkedFunctionOperator extends Operator {
         
                 ContanClassInstance instance = (ContanClassInstance) classInstance;
                 ClassBlock classBlock = instance.getBasedJavaObject();
+                
+                ClassBlock.MethodEntry methodEntry = classMethodCallSite.find(classBlock);
+                if (methodEntry != null) {
+                    return classBlock.invokeFunction(contanThread, instance.getEnvironment(), functionName, methodEntry, variables);
+                }
         
                 if (classBlock.hasFunction(functionName.getText(), variables.length)) {
                     return instance.invokeFunction(contanThread, functionName, variables);
@@ -184,31 +202,36 @@ public class PreLinkedFunctionOperator extends Operator {
                 }
     
                 JavaContanFuture javaContanFuture = (JavaContanFuture) contanObject.getBasedJavaObject();
-    
-                try {
-                    javaContanFuture.LOCK.lock();
-                    
-                    if (javaContanFuture.isDone()) {
-                        //Reset the return value later.
-                        environment.getContanThread().scheduleTask(() -> {
-                            environment.setReturnValue(null);
-                            return null;
-                        });
-                        //Rerun later
-                        environment.rerun();
-                        environment.setCoroutineStatus(this, args.length, javaContanFuture.getResult());
-                    } else {
-                        javaContanFuture.addAwaitEnvironment(environment);
-                    }
-                    environment.setReturnValue(ContanYieldObject.INSTANCE);
-                    return ContanYieldObject.INSTANCE;
-                } finally {
-                    javaContanFuture.LOCK.unlock();
+
+                //Already completed, the result is final so it is returned without suspending
+                environment.setAwaited();
+                if (javaContanFuture.isDone()) {
+                    return javaContanFuture.getResult();
+                }
+
+                //Suspend before subscribing, the completion may resume the function right away
+                environment.setSuspendedEvaluator(this);
+                environment.setReturnValue(ContanYieldObject.INSTANCE);
+                
+                if (!javaContanFuture.addAwaitEnvironment(environment, this)) {
+                    //Completed in the meantime
+                    environment.rerun(this, javaContanFuture.getResult());
                 }
+                return ContanYieldObject.INSTANCE;
             }
         }
 
-        ContanObject<?> returned = leftResult.invokeFunction(contanThread, functionName, variables);
+        ContanObject<?> returned;
+        ClassBlock.MethodEntry methodEntry;
+        if (leftResult instanceof ContanClassInstance
+                && (methodEntry = classMethodCallSite.find(((ContanClassInstance) leftResult).getBasedJavaObject())) != null) {
+            ContanClassInstance instance = (ContanClassInstance) leftResult;
+            returned = instance.getBasedJavaObject().invokeFunction(contanThread, instance.getEnvironment(), functionName, methodEntry, variables);
+        } else if (leftResult instanceof ContanPrimitiveObject<?>) {
+            returned = ((ContanPrimitiveObject<?>) leftResult).invokeFunction(contanThread, functionName, javaMethodCallSite, variables);
+        } else {
+            returned = leftResult.invokeFunction(contanThread, functionName, variables);
+        }
         //Cache returned Completable
         if (returned.getBasedJavaObject() == StandardClasses.FUTURE) {
             environment.setCoroutineStatus(this, args.length, returned);
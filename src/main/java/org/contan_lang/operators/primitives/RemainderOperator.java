@@ -5,6 +5,7 @@ import org.contan_lang.environment.CoroutineStatus;
 import org.contan_lang.environment.Environment;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.evaluators.Evaluator;
+import org.contan_lang.operators.OperandTypes;
 import org.contan_lang.operators.Operator;
 import org.contan_lang.runtime.ContanRuntimeUtil;
 import org.contan_lang.syntax.tokens.Token;
@@ -15,6 +16,9 @@ import org.contan_lang.variables.primitive.ContanYieldObject;
 
 public class RemainderOperator extends Operator {
 
+    //Types of the operands observed by this operator, see OperandTypes
+    private byte operandTypes = OperandTypes.UNINITIALIZED;
+    
     public RemainderOperator(ContanEngine contanEngine, Token token, Evaluator... operators) {
         super(contanEngine, token, operators);
     }
@@ -40,17 +44,49 @@ public class RemainderOperator extends Operator {
             environment.setCoroutineStatus(this, 0, contanObject0);
             return ContanYieldObject.INSTANCE;
         }
-
+        
+        return calculate(contanObject0, contanObject1);
+    }
+    
+    /**
+     * Calculate the result from the evaluated operands.
+     */
+    public ContanObject<?> calculate(ContanObject<?> contanObject0, ContanObject<?> contanObject1) {
         contanObject0 = ContanRuntimeUtil.removeReference(token, contanObject0);
         contanObject1 = ContanRuntimeUtil.removeReference(token, contanObject1);
 
+        switch (operandTypes) {
+            case OperandTypes.I64: {
+                if (contanObject0 instanceof ContanI64 && contanObject1 instanceof ContanI64) {
+                    return ContanI64.valueOf(contanEngine, contanObject0.toLong() % contanObject1.toLong());
+                }
+                break;
+            }
+            
+            case OperandTypes.F64: {
+                if (OperandTypes.isF64(contanObject0, contanObject1)) {
+                    //Integral values are calculated as long, same as the generic path
+                    if (contanObject0.convertibleToLong() && contanObject1.convertibleToLong()) {
+                        return ContanI64.valueOf(contanEngine, contanObject0.toLong() % contanObject1.toLong());
+                    }
+                    return new ContanF64(contanEngine, contanObject0.toDouble() % contanObject1.toDouble());
+                }
+                break;
+            }
+        }
+        
+        operandTypes = OperandTypes.update(operandTypes, contanObject0, contanObject1);
+        return evalGeneric(contanObject0, contanObject1);
+    }
+    
+    private ContanObject<?> evalGeneric(ContanObject<?> contanObject0, ContanObject<?> contanObject1) {
         if (contanObject0.convertibleToLong()) {
             long left = contanObject0.toLong();
 
             if (contanObject1.convertibleToLong()) {
                 long right = contanObject1.toLong();
 
-                return new ContanI64(contanEngine, left % right);
+                return ContanI64.valueOf(contanEngine, left % right);
             } else if (contanObject1.convertibleToDouble()) {
                 double right = contanObject1.toDouble();
 
@@ -16,6 +16,13 @@ public class RemoveReferenceOperator extends Operator {
 
     @Override
     public ContanObject<?> eval(Environment environment) {
-        return ContanRuntimeUtil.removeReference(token, operators[0].eval(environment));
+        return calculate(operators[0].eval(environment));
+    }
+    
+    /**
+     * Calculate the result from the evaluated operand.
+     */
+    public ContanObject<?> calculate(ContanObject<?> contanObject) {
+        return ContanRuntimeUtil.removeReference(token, contanObject);
     }
 }
@@ -19,12 +19,19 @@ public class SetReturnValueOperator extends Operator {
     @Override
     public ContanObject<?> eval(Environment environment) {
         ContanObject<?> variable = operators[0].eval(environment);
-        variable = ContanRuntimeUtil.removeReference(token, variable);
     
         if (environment.hasYieldReturnValue() || variable == ContanYieldObject.INSTANCE) {
             return ContanYieldObject.INSTANCE;
         }
         
+        return calculate(environment, variable);
+    }
+    
+    /**
+     * Set the evaluated value as the return value of the function.
+     */
+    public ContanObject<?> calculate(Environment environment, ContanObject<?> variable) {
+        variable = ContanRuntimeUtil.removeReference(token, variable);
         environment.setReturnValue(variable);
         return ContanVoidObject.INSTANCE;
     }
@@ -41,7 +41,14 @@ public class SetValueOperator extends Operator {
             environment.setCoroutineStatus(this, 0, contanObject0);
             return ContanYieldObject.INSTANCE;
         }
-
+        
+        return calculate(contanObject0, contanObject1);
+    }
+    
+    /**
+     * Assign the evaluated value to the evaluated reference.
+     */
+    public ContanObject<?> calculate(ContanObject<?> contanObject0, ContanObject<?> contanObject1) {
         if (!(contanObject0 instanceof ContanObjectReference)) {
             ContanRuntimeError.E0003.throwError("", null, token);
             return null;
@@ -3,6 +3,7 @@ package org.contan_lang.operators.primitives;
 import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.CoroutineStatus;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.runtime.ContanRuntimeUtil;
@@ -13,8 +14,8 @@ import org.contan_lang.variables.primitive.ContanClassInstance;
 
 public class SyncTaskOperator extends TaskOperator {
 
-    public SyncTaskOperator(ContanEngine contanEngine, Token token, Evaluator... operators) {
-        super(contanEngine, token, operators);
+    public SyncTaskOperator(ContanEngine contanEngine, Token token, FrameLayout frameLayout, Evaluator... operators) {
+        super(contanEngine, token, frameLayout, operators);
     }
 
     @Override
@@ -35,7 +36,7 @@ public class SyncTaskOperator extends TaskOperator {
                 return null;
             }
             
-            newEnvironment = new Environment(contanEngine, environment, contanThread, operators[1], true);
+            newEnvironment = new Environment(contanEngine, environment, contanThread, operators[1], true, frameLayout);
             
             newEnvironment.rerun();
             environment.setCoroutineStatus(this, 0, newEnvironment.getFuture().getContanInstance());
@@ -2,6 +2,7 @@ package org.contan_lang.operators.primitives;
 
 import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.operators.Operator;
 import org.contan_lang.syntax.tokens.Token;
@@ -10,8 +11,12 @@ import org.contan_lang.variables.primitive.ContanClassInstance;
 
 public abstract class TaskOperator extends Operator {
     
-    public TaskOperator(ContanEngine contanEngine, Token token, Evaluator... operators) {
+    //Layout of the environment created for the task
+    protected final FrameLayout frameLayout;
+    
+    public TaskOperator(ContanEngine contanEngine, Token token, FrameLayout frameLayout, Evaluator... operators) {
         super(contanEngine, token, operators);
+        this.frameLayout = frameLayout;
     }
     
     @Override
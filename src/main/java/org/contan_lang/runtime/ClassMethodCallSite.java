@@ -0,0 +1,63 @@
+package org.contan_lang.runtime;
+
+import org.contan_lang.evaluators.ClassBlock;
+import org.contan_lang.evaluators.ClassBlock.MethodEntry;
+import org.contan_lang.variables.primitive.ContanPrimitiveObject;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Inline cache of a call site for the functions of Contan classes.
+ * Keeps the function found for the class of the last receiver.
+ */
+public class ClassMethodCallSite {
+    
+    private final String functionName;
+    
+    private final int variableLength;
+    
+    //Functions of the primitive objects are not dispatched by classes
+    private final boolean primitiveFunction;
+    
+    private volatile Entry entry = null;
+    
+    public ClassMethodCallSite(String functionName, int variableLength) {
+        this.functionName = functionName;
+        this.variableLength = variableLength;
+        this.primitiveFunction = ContanPrimitiveObject.isPrimitiveFunction(functionName, variableLength);
+    }
+    
+    /**
+     * Find the function to invoke for the instance of the class.
+     *
+     * @param classBlock Class of the receiver
+     * @return Function to invoke directly, null if the call has to be dispatched by the instance
+     */
+    public @Nullable MethodEntry find(ClassBlock classBlock) {
+        if (primitiveFunction) {
+            return null;
+        }
+        
+        Entry entry = this.entry;
+        if (entry == null || entry.classBlock != classBlock) {
+            MethodEntry methodEntry = classBlock.hasCustomDispatch() ? null : classBlock.findFunction(functionName, variableLength);
+            entry = new Entry(classBlock, methodEntry);
+            this.entry = entry;
+        }
+        return entry.methodEntry;
+    }
+    
+    
+    private static class Entry {
+        
+        private final ClassBlock classBlock;
+        
+        private final @Nullable MethodEntry methodEntry;
+        
+        private Entry(ClassBlock classBlock, @Nullable MethodEntry methodEntry) {
+            this.classBlock = classBlock;
+            this.methodEntry = methodEntry;
+        }
+        
+    }
+    
+}
@@ -1,70 +1,105 @@
 package org.contan_lang.runtime;
 
 import org.contan_lang.environment.Environment;
+import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.thread.ContanThread;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.primitive.ContanClassInstance;
 import org.contan_lang.variables.primitive.ContanFunctionExpression;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Future of a function or a task, completed once.
+ * <p>
+ * The state is either the stack of continuations waiting for the result, or the completed result.
+ * Continuations are pushed with a compare-and-set, and completion swaps the stack for the result with
+ * a single compare-and-set, so neither side takes a lock. A continuation added after the completion
+ * is refused, and the caller runs it directly.
+ */
 public class JavaContanFuture {
     
-    private final ContanClassInstance future;
-    
-    private final List<FunctionExpressionWithThread> thenList = new ArrayList<>();
-    
-    private final List<FunctionExpressionWithThread> catchList = new ArrayList<>();
-    
-    private boolean isDone = false;
+    //Bottom of the continuation stack
+    private static final Continuation EMPTY = new Continuation(null, null, null);
     
-    private ContanObject<?> result = null;
-    
-    private final List<Environment> awaitEnvironmentList = new ArrayList<>();
+    private final ContanClassInstance future;
     
-    public final ReentrantLock LOCK = new ReentrantLock(true);
+    //Continuation stack, or Completed once the result is set
+    private final AtomicReference<Object> state = new AtomicReference<>(EMPTY);
     
     public JavaContanFuture(ContanClassInstance future) {
         this.future = future;
     }
     
-    public void addThen(FunctionExpressionWithThread functionExpression) {this.thenList.add(functionExpression);}
+    /**
+     * @return True if added, false if the future is already done and the function has to be called directly
+     */
+    public boolean addThen(FunctionExpressionWithThread functionExpression) {return push(new Continuation(functionExpression, null, null));}
     
-    public void addCatch(FunctionExpressionWithThread functionExpression) {this.catchList.add(functionExpression);}
-
-    public void addAwaitEnvironment(Environment environment) {this.awaitEnvironmentList.add(environment);}
+    /**
+     * @return True if added, false if the future is already done and the environment has to be resumed directly
+     */
+    public boolean addAwaitEnvironment(Environment environment, Evaluator evaluator) {return push(new Continuation(null, environment, evaluator));}
     
-    public ContanObject<?> getResult() {return result;}
+    public ContanObject<?> getResult() {
+        Object state = this.state.get();
+        return state instanceof Completed ? ((Completed) state).result : null;
+    }
     
     public ContanClassInstance getContanInstance() {return future;}
     
-    public boolean isDone() {return isDone;}
+    public boolean isDone() {return state.get() instanceof Completed;}
     
-    public void complete(ContanObject<?> result) {
-        try {
-            LOCK.lock();
-            this.result = result;
-            isDone = true;
+    private boolean push(Continuation continuation) {
+        while (true) {
+            Object state = this.state.get();
+            if (state instanceof Completed) {
+                return false;
+            }
+            
+            continuation.next = (Continuation) state;
+            if (this.state.compareAndSet(state, continuation)) {
+                return true;
+            }
+        }
+    }
     
-            for (FunctionExpressionWithThread functionExpression : thenList) {
+    /**
+     * Set the result and run the waiting continuations. Only the first completion takes effect.
+     */
+    public void complete(ContanObject<?> result) {
+        Completed completed = new Completed(result);
+        
+        Object state;
+        do {
+            state = this.state.get();
+            if (state instanceof Completed) {
+                return;
+            }
+        } while (!this.state.compareAndSet(state, completed));
+        
+        //Reverse the stack, so that continuations run in the order they were added
+        Continuation reversed = null;
+        Continuation continuation = (Continuation) state;
+        while (continuation != EMPTY) {
+            Continuation next = continuation.next;
+            continuation.next = reversed;
+            reversed = continuation;
+            continuation = next;
+        }
+        
+        for (continuation = reversed; continuation != null; continuation = continuation.next) {
+            FunctionExpressionWithThread functionExpression = continuation.functionExpression;
+            if (functionExpression != null) {
                 functionExpression.contanThread.scheduleTask(() ->
                         functionExpression.functionExpression.eval(functionExpression.contanThread, null, result)
                 );
             }
-    
-            for (Environment environment : awaitEnvironmentList) {
-                Environment returnEnv = environment.getReturnEnvironment();
-                if (returnEnv == null) {
-                    continue;
-                }
-        
-                environment.setReturnValue(null);
-                returnEnv.rerun();
+            
+            if (continuation.environment != null) {
+                //The await evaluator returns the result when the function resumes
+                continuation.environment.rerun(continuation.evaluator, result);
             }
-        } finally {
-            LOCK.unlock();
         }
     }
 
@@ -78,4 +113,25 @@ public class JavaContanFuture {
             this.functionExpression = functionExpression;
         }
     }
+    
+    private static class Continuation {
+        private final FunctionExpressionWithThread functionExpression;
+        private final Environment environment;
+        private final Evaluator evaluator;
+        private Continuation next;
+        
+        private Continuation(FunctionExpressionWithThread functionExpression, Environment environment, Evaluator evaluator) {
+            this.functionExpression = functionExpression;
+            this.environment = environment;
+            this.evaluator = evaluator;
+        }
+    }
+    
+    private static class Completed {
+        private final ContanObject<?> result;
+        
+        private Completed(ContanObject<?> result) {
+            this.result = result;
+        }
+    }
 }
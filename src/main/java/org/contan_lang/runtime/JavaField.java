@@ -0,0 +1,75 @@
+package org.contan_lang.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * Public field of a Java class, read and written through method handles.
+ * The handles are created on the first access, so access errors are thrown by the access like {@link Field}.
+ */
+public class JavaField {
+
+    public final Field field;
+
+    public final boolean isStatic;
+
+    //(Object javaObject)Object
+    private volatile MethodHandle getter = null;
+
+    //(Object javaObject, Object value)void
+    private volatile MethodHandle setter = null;
+
+    public JavaField(Field field) {
+        this.field = field;
+        this.isStatic = Modifier.isStatic(field.getModifiers());
+    }
+
+    public boolean isConstant() {return isStatic && Modifier.isFinal(field.getModifiers());}
+
+    public Object get(@Nullable Object javaObject) throws Exception {
+        MethodHandle getter = this.getter;
+        if (getter == null) {
+            getter = MethodHandles.lookup().unreflectGetter(field);
+            if (isStatic) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            getter = getter.asType(MethodType.genericMethodType(1));
+            this.getter = getter;
+        }
+
+        try {
+            return (Object) getter.invokeExact(javaObject);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new InvocationTargetException(throwable);
+        }
+    }
+
+    public void set(@Nullable Object javaObject, Object value) throws Exception {
+        MethodHandle setter = this.setter;
+        if (setter == null) {
+            setter = MethodHandles.lookup().unreflectSetter(field);
+            if (isStatic) {
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+            setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.setter = setter;
+        }
+
+        try {
+            setter.invokeExact(javaObject, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new InvocationTargetException(throwable);
+        }
+    }
+
+}
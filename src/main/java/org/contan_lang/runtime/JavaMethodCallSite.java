@@ -0,0 +1,226 @@
+package org.contan_lang.runtime;
+
+import org.contan_lang.runtime.JavaMethodTable.JavaMethod;
+import org.contan_lang.runtime.JavaMethodTable.MethodMatch;
+import org.contan_lang.variables.ContanObject;
+import org.contan_lang.variables.NumberType;
+import org.contan_lang.variables.primitive.JavaClassInstance;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Inline cache of a call site that invokes Java methods or constructors.
+ * <p>
+ * Entries are keyed on the receiver class and the class of each argument, which is the class of the
+ * wrapped object for a {@link JavaClassInstance}. Whether a parameter accepts an argument depends only
+ * on these classes, except for the parameters of number types, which also depend on the number value.
+ * An entry keeps the methods that can still accept arguments of its classes, and checks only those
+ * number values on a call, so the converters of the matched method are taken from the entry without
+ * converting any argument to select it.
+ * <p>
+ * A site that sees more than {@link #MAX_ENTRIES} argument classes looks up the {@link JavaMethodTable}
+ * of the receiver class for the others.
+ */
+public class JavaMethodCallSite {
+
+    private static final int MAX_ENTRIES = 4;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+
+    //Null for a site that creates instances
+    private final @Nullable String methodName;
+
+    //Replaced as a whole, so that the entries can be read without a lock
+    private volatile Entry[] entries = NO_ENTRIES;
+
+    /**
+     * @param methodName Name of the invoked method, null for a site that invokes constructors
+     */
+    public JavaMethodCallSite(@Nullable String methodName) {
+        this.methodName = methodName;
+    }
+
+    /**
+     * Find the method that accepts the arguments.
+     *
+     * @param clazz Class of the receiver, or the class to instantiate
+     * @param variables Arguments of the call
+     * @return Matched method and its argument converters, null if no method accepts the arguments
+     */
+    public @Nullable MethodMatch find(Class<?> clazz, ContanObject<?>[] variables) {
+        Entry[] entries = this.entries;
+        for (Entry entry : entries) {
+            if (entry.clazz == clazz && entry.hasArgumentTypes(variables)) {
+                return entry.select(variables);
+            }
+        }
+
+        JavaMethodTable table = JavaMethodTable.get(clazz);
+        JavaMethod[] methods = methodName == null ? table.getConstructors(variables.length) : table.getMethods(methodName, variables.length);
+        Entry entry = new Entry(clazz, variables, methods);
+
+        if (entries.length < MAX_ENTRIES) {
+            synchronized (this) {
+                Entry[] current = this.entries;
+                if (current.length < MAX_ENTRIES) {
+                    Entry[] newEntries = Arrays.copyOf(current, current.length + 1);
+                    newEntries[current.length] = entry;
+                    this.entries = newEntries;
+                }
+            }
+        }
+
+        return entry.select(variables);
+    }
+
+    /**
+     * @return Class that decides which parameters accept the argument, apart from its number value
+     */
+    private static Class<?> getArgumentType(ContanObject<?> variable) {
+        if (variable instanceof JavaClassInstance) {
+            Object based = ((JavaClassInstance) variable).getBasedJavaObject();
+            return based == null ? JavaMethodTable.NULL : based.getClass();
+        }
+        return variable.getClass();
+    }
+
+
+    private static class Entry {
+
+        private final Class<?> clazz;
+
+        private final Class<?>[] argumentTypes;
+
+        //Methods that accept arguments of the argument types for some number values, in the order of the table
+        private final Candidate[] candidates;
+
+        private Entry(Class<?> clazz, ContanObject<?>[] variables, JavaMethod[] methods) {
+            this.clazz = clazz;
+            this.argumentTypes = new Class<?>[variables.length];
+            Class<?>[] javaTypes = new Class<?>[variables.length];
+            for (int i = 0; i < variables.length; i++) {
+                argumentTypes[i] = getArgumentType(variables[i]);
+                //The Java object of the other Contan objects has the same class for every value
+                javaTypes[i] = JavaMethodTable.getJavaType(variables[i]);
+            }
+
+            List<Candidate> candidates = new ArrayList<>();
+            for (JavaMethod method : methods) {
+                Candidate candidate = Candidate.create(method, javaTypes);
+                if (candidate == null) {
+                    continue;
+                }
+
+                candidates.add(candidate);
+                if (candidate.numberIndexes.length == 0) {
+                    //Accepts every value, the methods after it are never selected
+                    break;
+                }
+            }
+            this.candidates = candidates.toArray(new Candidate[0]);
+        }
+
+        private boolean hasArgumentTypes(ContanObject<?>[] variables) {
+            for (int i = 0; i < argumentTypes.length; i++) {
+                if (getArgumentType(variables[i]) != argumentTypes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private @Nullable MethodMatch select(ContanObject<?>[] variables) {
+            for (Candidate candidate : candidates) {
+                MethodMatch match = candidate.select(variables);
+                if (match != null) {
+                    return match;
+                }
+            }
+            return null;
+        }
+
+    }
+
+
+    private static class Candidate {
+
+        private final MethodMatch match;
+
+        //Arguments passed to parameters of number types, which are checked on each call
+        private final int[] numberIndexes;
+
+        //Whether the parameter at each number index accepts the argument as an object, when its value is not a number
+        private final boolean[] objectAccepts;
+
+        private Candidate(MethodMatch match, int[] numberIndexes, boolean[] objectAccepts) {
+            this.match = match;
+            this.numberIndexes = numberIndexes;
+            this.objectAccepts = objectAccepts;
+        }
+
+        /**
+         * @param javaTypes Types returned by {@link JavaMethodTable#getJavaType(ContanObject)}
+         * @return Candidate, null if the method rejects the arguments whatever their number values are
+         */
+        private static @Nullable Candidate create(JavaMethod method, Class<?>[] javaTypes) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            byte[] converters = new byte[parameterTypes.length];
+            int[] numberIndexes = new int[parameterTypes.length];
+            boolean[] objectAccepts = new boolean[parameterTypes.length];
+            int numberCount = 0;
+
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> parameterType = parameterTypes[i];
+                boolean objectAccepted = JavaMethodTable.acceptObject(parameterType, javaTypes[i]);
+                if (JavaMethodTable.isNumberParameter(parameterType)) {
+                    //Converted as a number, or as an object if the value is not a number
+                    converters[i] = JavaMethodTable.getNumberConverter(parameterType);
+                    objectAccepts[numberCount] = objectAccepted;
+                    numberIndexes[numberCount++] = i;
+                } else if (objectAccepted) {
+                    converters[i] = JavaMethod.CONVERT_OBJECT;
+                } else {
+                    return null;
+                }
+            }
+
+            return new Candidate(new MethodMatch(method, converters),
+                    Arrays.copyOf(numberIndexes, numberCount), Arrays.copyOf(objectAccepts, numberCount));
+        }
+
+        /**
+         * @return Match of the method, null if the method does not accept the number values
+         */
+        private @Nullable MethodMatch select(ContanObject<?>[] variables) {
+            Class<?>[] parameterTypes = match.method.getParameterTypes();
+            byte[] converters = null;
+
+            for (int i = 0; i < numberIndexes.length; i++) {
+                int index = numberIndexes[i];
+                NumberType numberType = JavaMethodTable.getNumberType(variables[index]);
+
+                if (numberType != null) {
+                    if (JavaMethodTable.acceptNumber(parameterTypes[index], numberType) == JavaMethod.REJECT) {
+                        return null;
+                    }
+                } else if (objectAccepts[i]) {
+                    //Rare, such as void or a string that is not a number, so the converters are copied
+                    if (converters == null) {
+                        converters = match.converters.clone();
+                    }
+                    converters[index] = JavaMethod.CONVERT_OBJECT;
+                } else {
+                    return null;
+                }
+            }
+
+            return converters == null ? match : new MethodMatch(match.method, converters);
+        }
+
+    }
+
+}
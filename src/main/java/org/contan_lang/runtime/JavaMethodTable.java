@@ -0,0 +1,355 @@
+package org.contan_lang.runtime;
+
+import org.contan_lang.variables.ContanObject;
+import org.contan_lang.variables.NumberType;
+import org.contan_lang.variables.primitive.ContanVoidObject;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Public methods and constructors of a Java class grouped by name and parameter count.
+ * <p>
+ * The table is created once per class and the methods keep the order of {@link Class#getMethods()}
+ * and {@link Class#getConstructors()}, so the same method is selected as when they are searched one by one.
+ */
+public class JavaMethodTable {
+
+    private static final ClassValue<JavaMethodTable> TABLES = new ClassValue<JavaMethodTable>() {
+        @Override
+        protected JavaMethodTable computeValue(Class<?> type) {
+            return new JavaMethodTable(type);
+        }
+    };
+
+    private static final JavaMethod[] NO_METHODS = new JavaMethod[0];
+
+    //Type of a void argument, no object has this class
+    static final Class<?> VOID = Void.class;
+
+    //Type of an argument whose Java object is null
+    static final Class<?> NULL = NullObject.class;
+
+    private static final class NullObject {}
+
+    public static JavaMethodTable get(Class<?> clazz) {return TABLES.get(clazz);}
+
+
+    //Methods of each name, indexed by the parameter count
+    private final Map<String, JavaMethod[][]> methodMap = new HashMap<>();
+
+    //Constructors indexed by the parameter count
+    private final JavaMethod[][] constructors;
+
+    private JavaMethodTable(Class<?> clazz) {
+        Map<String, List<List<JavaMethod>>> methodLists = new HashMap<>();
+        for (Method method : clazz.getMethods()) {
+            addMethod(methodLists.computeIfAbsent(method.getName(), name -> new ArrayList<>()), method);
+        }
+        methodLists.forEach((name, lists) -> methodMap.put(name, toArrays(lists)));
+
+        List<List<JavaMethod>> constructorLists = new ArrayList<>();
+        for (Constructor<?> constructor : clazz.getConstructors()) {
+            addMethod(constructorLists, constructor);
+        }
+        constructors = toArrays(constructorLists);
+    }
+
+    private static void addMethod(List<List<JavaMethod>> lists, Executable executable) {
+        int parameterCount = executable.getParameterCount();
+        while (lists.size() <= parameterCount) {
+            lists.add(new ArrayList<>());
+        }
+        lists.get(parameterCount).add(new JavaMethod(executable));
+    }
+
+    private static JavaMethod[][] toArrays(List<List<JavaMethod>> lists) {
+        JavaMethod[][] methods = new JavaMethod[lists.size()][];
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = lists.get(i).toArray(NO_METHODS);
+        }
+        return methods;
+    }
+
+    public JavaMethod[] getMethods(String name, int parameterCount) {
+        JavaMethod[][] methods = methodMap.get(name);
+        if (methods == null || parameterCount >= methods.length) {
+            return NO_METHODS;
+        }
+        return methods[parameterCount];
+    }
+
+    public JavaMethod[] getConstructors(int parameterCount) {
+        if (parameterCount >= constructors.length) {
+            return NO_METHODS;
+        }
+        return constructors[parameterCount];
+    }
+
+    /**
+     * Find the first method that accepts the arguments.
+     *
+     * @param name Name of the method
+     * @param variables Arguments of the call
+     * @return Matched method and its argument converters, null if no method accepts the arguments
+     */
+    public @Nullable MethodMatch find(String name, ContanObject<?>[] variables) {
+        return find(getMethods(name, variables.length), variables);
+    }
+
+    /**
+     * Find the first constructor that accepts the arguments.
+     *
+     * @param variables Arguments of the call
+     * @return Matched constructor and its argument converters, null if no constructor accepts the arguments
+     */
+    public @Nullable MethodMatch findConstructor(ContanObject<?>[] variables) {
+        return find(getConstructors(variables.length), variables);
+    }
+
+    static @Nullable MethodMatch find(JavaMethod[] methods, ContanObject<?>[] variables) {
+        for (JavaMethod method : methods) {
+            byte[] converters = method.match(variables);
+            if (converters != null) {
+                return new MethodMatch(method, converters);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the type that decides which parameters accept the argument, apart from its number value.
+     *
+     * @param variable Argument of a call
+     * @return {@link #VOID} for void, {@link #NULL} for a null object, otherwise the class of the Java object
+     */
+    static Class<?> getJavaType(ContanObject<?> variable) {
+        if (variable == ContanVoidObject.INSTANCE) {
+            return VOID;
+        }
+
+        Object converted = variable.convertToJavaObject();
+        return converted == null ? NULL : converted.getClass();
+    }
+
+    /**
+     * @return Type of the number of the argument, null if the argument is not a number
+     */
+    static @Nullable NumberType getNumberType(ContanObject<?> variable) {
+        return variable.convertibleToDouble() ? NumberType.getType(variable.toDouble()) : null;
+    }
+
+    static boolean isNumberParameter(Class<?> parameterType) {
+        return parameterType == int.class || parameterType == Integer.class
+                || parameterType == long.class || parameterType == Long.class
+                || parameterType == float.class || parameterType == Float.class
+                || parameterType == double.class || parameterType == Double.class;
+    }
+
+    /**
+     * Check a number argument against a parameter of a number type.
+     *
+     * @return Converter of the argument, {@link JavaMethod#REJECT} if the parameter does not accept the number
+     */
+    static byte acceptNumber(Class<?> parameterType, NumberType numberType) {
+        byte converter = getNumberConverter(parameterType);
+        switch (converter) {
+            case JavaMethod.CONVERT_INT: return numberType == NumberType.INTEGER ? converter : JavaMethod.REJECT;
+            case JavaMethod.CONVERT_LONG: return numberType == NumberType.LONG || numberType == NumberType.INTEGER ? converter : JavaMethod.REJECT;
+            case JavaMethod.CONVERT_FLOAT: return numberType == NumberType.FLOAT || numberType == NumberType.INTEGER ? converter : JavaMethod.REJECT;
+            default: return converter;
+        }
+    }
+
+    static byte getNumberConverter(Class<?> parameterType) {
+        if (parameterType == int.class || parameterType == Integer.class) {
+            return JavaMethod.CONVERT_INT;
+        } else if (parameterType == long.class || parameterType == Long.class) {
+            return JavaMethod.CONVERT_LONG;
+        } else if (parameterType == float.class || parameterType == Float.class) {
+            return JavaMethod.CONVERT_FLOAT;
+        } else {
+            return JavaMethod.CONVERT_DOUBLE;
+        }
+    }
+
+    /**
+     * Check the Java object of an argument against a parameter.
+     *
+     * @param javaType Type returned by {@link #getJavaType(ContanObject)}
+     */
+    static boolean acceptObject(Class<?> parameterType, Class<?> javaType) {
+        if (javaType == VOID) {
+            return true;
+        } else if (javaType == Boolean.class) {
+            return parameterType == boolean.class || parameterType == Boolean.class;
+        } else {
+            return javaType != NULL && parameterType.isAssignableFrom(javaType);
+        }
+    }
+
+
+    public static class MethodMatch {
+        public final JavaMethod method;
+        public final byte[] converters;
+
+        public MethodMatch(JavaMethod method, byte[] converters) {
+            this.method = method;
+            this.converters = converters;
+        }
+
+        /**
+         * Invoke the matched method with the arguments it was matched against.
+         *
+         * @see JavaMethod#invoke(Object, byte[], ContanObject[])
+         */
+        public Object invoke(@Nullable Object based, ContanObject<?>[] variables) throws InvocationTargetException {
+            return method.invoke(based, converters, variables);
+        }
+    }
+
+
+    public static class JavaMethod {
+
+        public static final byte REJECT = -1;
+        public static final byte CONVERT_INT = 0;
+        public static final byte CONVERT_LONG = 1;
+        public static final byte CONVERT_FLOAT = 2;
+        public static final byte CONVERT_DOUBLE = 3;
+        public static final byte CONVERT_OBJECT = 4;
+
+        //Method or constructor
+        public final Executable executable;
+
+        private final Class<?>[] parameterTypes;
+
+        //Parameter types with the primitive types boxed, which the converted arguments are checked against
+        private final Class<?>[] argumentTypes;
+
+        //(Object receiver, Object[] arguments)Object, created on the first invocation
+        private volatile MethodHandle invoker = null;
+
+        private JavaMethod(Executable executable) {
+            this.executable = executable;
+            this.parameterTypes = executable.getParameterTypes();
+            this.argumentTypes = new Class<?>[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                argumentTypes[i] = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+            }
+        }
+
+        public Class<?>[] getParameterTypes() {return parameterTypes;}
+
+        /**
+         * Check the arguments against the parameter types.
+         *
+         * @param variables Arguments of the call
+         * @return Converter of each argument, null if the method does not accept the arguments
+         */
+        public @Nullable byte[] match(ContanObject<?>[] variables) {
+            byte[] converters = new byte[parameterTypes.length];
+
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> parameterType = parameterTypes[i];
+                ContanObject<?> variable = variables[i];
+
+                NumberType numberType;
+                if (isNumberParameter(parameterType) && (numberType = getNumberType(variable)) != null) {
+                    converters[i] = acceptNumber(parameterType, numberType);
+                } else {
+                    converters[i] = acceptObject(parameterType, getJavaType(variable)) ? CONVERT_OBJECT : REJECT;
+                }
+
+                if (converters[i] == REJECT) {
+                    return null;
+                }
+            }
+
+            return converters;
+        }
+
+        /**
+         * Invoke the method with the converted arguments.
+         *
+         * @param based Receiver of the method, null for a static method or a constructor
+         * @param converters Converters returned by {@link #match(ContanObject[])}
+         * @param variables Arguments of the call
+         * @return Returned object or created instance, null for a void method
+         * @throws IllegalArgumentException If the receiver or a converted argument does not fit the method
+         * @throws InvocationTargetException If the method throws anything
+         */
+        public Object invoke(@Nullable Object based, byte[] converters, ContanObject<?>[] variables) throws InvocationTargetException {
+            Object[] convertedArgs = new Object[variables.length];
+            for (int i = 0; i < variables.length; i++) {
+                Object convertedArg;
+                switch (converters[i]) {
+                    case CONVERT_INT: convertedArg = (int) variables[i].toDouble(); break;
+                    case CONVERT_LONG: convertedArg = (long) variables[i].toDouble(); break;
+                    case CONVERT_FLOAT: convertedArg = (float) variables[i].toDouble(); break;
+                    case CONVERT_DOUBLE: convertedArg = variables[i].toDouble(); break;
+                    default: convertedArg = variables[i].convertToJavaObject(); break;
+                }
+
+                //Checked here, so that the invoker never fails to convert and all it throws comes from the method
+                if (convertedArg == null ? parameterTypes[i].isPrimitive() : !argumentTypes[i].isInstance(convertedArg)) {
+                    throw new IllegalArgumentException("argument type mismatch");
+                }
+                convertedArgs[i] = convertedArg;
+            }
+
+            if (executable instanceof Method && !Modifier.isStatic(executable.getModifiers())
+                    && !executable.getDeclaringClass().isInstance(based)) {
+                throw new IllegalArgumentException("object is not an instance of declaring class");
+            }
+
+            MethodHandle invoker = getInvoker();
+            try {
+                return (Object) invoker.invokeExact(based, convertedArgs);
+            } catch (Throwable throwable) {
+                throw new InvocationTargetException(throwable);
+            }
+        }
+
+        private MethodHandle getInvoker() {
+            MethodHandle invoker = this.invoker;
+            if (invoker != null) {
+                return invoker;
+            }
+
+            MethodHandle handle;
+            try {
+                executable.setAccessible(true);
+                if (executable instanceof Constructor<?>) {
+                    handle = MethodHandles.lookup().unreflectConstructor((Constructor<?>) executable).asFixedArity();
+                } else {
+                    handle = MethodHandles.lookup().unreflect((Method) executable).asFixedArity();
+                }
+            } catch (IllegalAccessException e) {
+                //Not checked once the executable is accessible
+                throw new IllegalStateException(e);
+            }
+            
+            if (executable instanceof Constructor<?> || Modifier.isStatic(executable.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+
+            invoker = handle.asType(MethodType.genericMethodType(parameterTypes.length + 1))
+                    .asSpreader(Object[].class, parameterTypes.length);
+            this.invoker = invoker;
+            return invoker;
+        }
+
+    }
+
+}
@@ -15,6 +15,8 @@ public class ContanFuture extends ClassBlock {
     
     public ContanFuture(Token className, String classPath, Environment moduleEnvironment, Evaluator superClassEval, Token... initializeArgs) {
         super(className, classPath, moduleEnvironment, superClassEval, initializeArgs);
+        //Stored in a slot of the instance layout, so that futures do not need a variable map
+        classVariables.add("javaFuture");
     }
     
     @Override
@@ -60,16 +62,8 @@ public class ContanFuture extends ClassBlock {
                 
                 JavaContanFuture javaContanFuture = (JavaContanFuture) contanObject.getBasedJavaObject();
                 
-                try {
-                    javaContanFuture.LOCK.lock();
-                    
-                    if (javaContanFuture.isDone()){
-                        functionExpression.eval(contanThread, functionName, javaContanFuture.getResult());
-                    } else {
-                        javaContanFuture.addThen(new JavaContanFuture.FunctionExpressionWithThread(contanThread, functionExpression));
-                    }
-                } finally {
-                    javaContanFuture.LOCK.unlock();
+                if (!javaContanFuture.addThen(new JavaContanFuture.FunctionExpressionWithThread(contanThread, functionExpression))) {
+                    functionExpression.eval(contanThread, functionName, javaContanFuture.getResult());
                 }
                 
                 return ContanVoidObject.INSTANCE;
@@ -105,16 +99,9 @@ public class ContanFuture extends ClassBlock {
     
                 JavaContanFuture javaContanFuture = (JavaContanFuture) contanObject.getBasedJavaObject();
     
-                try {
-                    javaContanFuture.LOCK.lock();
-        
-                    if (javaContanFuture.isDone()){
-                        functionExpression.eval(contanThread, functionName, javaContanFuture.getResult());
-                    } else {
-                        javaContanFuture.addCatch(new JavaContanFuture.FunctionExpressionWithThread(contanThread, functionExpression));
-                    }
-                } finally {
-                    javaContanFuture.LOCK.unlock();
+                //There is no failed completion to call catch functions with, so they are not kept while running
+                if (javaContanFuture.isDone()) {
+                    functionExpression.eval(contanThread, functionName, javaContanFuture.getResult());
                 }
                 
                 return ContanVoidObject.INSTANCE;
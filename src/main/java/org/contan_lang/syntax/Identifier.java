@@ -2,6 +2,9 @@ package org.contan_lang.syntax;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public enum Identifier {
     EXPRESSION_SPLIT(1, true, "\n", ";"),
     CLASS(13, false, "class"),
@@ -64,17 +67,19 @@ public enum Identifier {
         this.adjoinable = adjoinable;
     }
     
-    @Nullable
-    public static Identifier fromString(String keyWord) {
+    private static final Map<String, Identifier> WORD_MAP = new HashMap<>();
+    
+    static {
         for (Identifier identifier : Identifier.values()) {
             for (String word : identifier.words) {
-                if (keyWord.equals(word)) {
-                    return identifier;
-                }
+                WORD_MAP.putIfAbsent(word, identifier);
             }
         }
-        
-        return null;
+    }
+    
+    @Nullable
+    public static Identifier fromString(String keyWord) {
+        return WORD_MAP.get(keyWord);
     }
     
 }
@@ -3,26 +3,50 @@ package org.contan_lang.syntax;
 import org.contan_lang.syntax.tokens.LineToken;
 import org.contan_lang.syntax.tokens.StringToken;
 import org.contan_lang.syntax.tokens.Token;
+import org.contan_lang.syntax.tokens.TokenList;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class Lexer {
 
+    /**
+     * Trie of every word of {@link Identifier}, built once.
+     * Each terminal node remembers the position of its word in the enum so that
+     * the same identifier as a linear scan over {@link Identifier#values()} is chosen.
+     */
+    private static final IdentifierNode IDENTIFIER_TRIE = new IdentifierNode();
+
+    private static final int MAX_WORD_LENGTH;
+
+    static {
+        int maxWordLength = 0;
+        int order = 0;
+        for (Identifier identifier : Identifier.values()) {
+            for (String word : identifier.words) {
+                IDENTIFIER_TRIE.add(word, identifier, order++);
+                maxWordLength = Math.max(maxWordLength, word.length());
+            }
+        }
+        MAX_WORD_LENGTH = maxWordLength;
+    }
+
     public final String text;
 
     public final String rootName;
-    
-    public final List<Token> tokens = new ArrayList<>();
+
+    public final TokenList tokens;
 
     public Lexer(String rootName, String text) {
         this.rootName = rootName;
         this.text = text + " ";
+        this.tokens = split();
     }
-    
-    public List<Token> split() {
+
+    private TokenList split() {
         List<Token> tokens = new ArrayList<>();
         
+        String text = this.text;
         int textLength = text.length();
         
         int currentLine = 1;
@@ -30,11 +54,14 @@ public class Lexer {
         LineToken currentLineToken = new LineToken(1);
         
         StringBuilder keyWord = new StringBuilder();
+        int keyWordStart = 0;
         
         boolean isInString = false;
         boolean escaped = false;
         CommentType commentType = null;
         
+        IdentifierNode[] matches = new IdentifierNode[MAX_WORD_LENGTH];
+        
         loop : for (int i = 0; i < textLength; i++) {
             char currentCharacter = text.charAt(i);
             
@@ -79,35 +106,10 @@ public class Lexer {
                 
                 if (commentType != null) {
                     if (keyWord.length() != 0) {
-                        String key = keyWord.toString();
-        
-                        Token token = null;
-        
-                        if (text.charAt(i - 1) == '"') {
-                            token = new StringToken(this, key, currentColumn, currentLineToken, null);
-                        }
-        
-                        if (token == null) {
-                            //Check identifier
-                            id:
-                            for (Identifier identifier : Identifier.values()) {
-                                for (String word : identifier.words) {
-                                    if (word.equals(key)) {
-                                        token = new Token(this, key, currentColumn, currentLineToken, identifier);
-                                        break id;
-                                    }
-                                }
-                            }
-                        }
-        
-                        if (token == null) {
-                            token = new Token(this, key, currentColumn, currentLineToken, null);
-                        }
-        
-                        tokens.add(token);
-                        keyWord = new StringBuilder();
+                        tokens.add(createToken(keyWord.toString(), currentColumn, currentLineToken, text.charAt(i - 1) == '"', tokens.size(), keyWordStart, i));
+                        keyWord.setLength(0);
                     }
-    
+                    
                     currentColumn++;
                     currentLineToken.append(currentCharacter);
                     
@@ -125,57 +127,36 @@ public class Lexer {
                     if (i == textLength - 1) {
                         keyWord.append(currentCharacter);
                     }
-                    String key = keyWord.toString();
-                    
-                    Token token = null;
-
-                    if (text.charAt(i - 1) == '"') {
-                        token = new StringToken(this, key, currentColumn, currentLineToken, null);
-                    }
-
-                    if (token == null) {
-                        //Check identifier
-                        id:
-                        for (Identifier identifier : Identifier.values()) {
-                            for (String word : identifier.words) {
-                                if (word.equals(key)) {
-                                    token = new Token(this, key, currentColumn, currentLineToken, identifier);
-                                    break id;
-                                }
-                            }
-                        }
-                    }
                     
-                    if (token == null) {
-                        token = new Token(this, key, currentColumn, currentLineToken, null);
-                    }
-                    
-                    tokens.add(token);
-                    keyWord = new StringBuilder();
+                    int end = i == textLength - 1 ? textLength : i;
+                    tokens.add(createToken(keyWord.toString(), currentColumn, currentLineToken, text.charAt(i - 1) == '"', tokens.size(), keyWordStart, end));
+                    keyWord.setLength(0);
                 }
             } else {
                 if (currentCharacter == '\\' || currentCharacter == '"') {
                     if (escaped) {
+                        if (keyWord.length() == 0) {
+                            keyWordStart = i;
+                        }
                         keyWord.append(currentCharacter);
                     }
                 } else {
+                    if (keyWord.length() == 0) {
+                        keyWordStart = i;
+                    }
                     keyWord.append(currentCharacter);
                 }
             }
-    
-            if (currentCharacter == '\\' && isInString) {
-                escaped = true;
-            } else {
-                escaped = false;
-            }
-    
+            
+            escaped = currentCharacter == '\\' && isInString;
+            
             
             currentColumn++;
-    
+            
             if (currentCharacter == '\n') {
                 currentLine++;
                 currentColumn = 0;
-        
+                
                 currentLineToken.build();
                 currentLineToken = new LineToken(currentLine);
             } else {
@@ -188,66 +169,155 @@ public class Lexer {
             }
             
             //Check identifier
-            for (Identifier identifier : Identifier.values()) {
-                for (String word : identifier.words) {
-                    if (text.substring(i).startsWith(word)) {
-                        if (!identifier.adjoinable) {
-                            if (i != 0) {
-                                if (String.valueOf(text.charAt(i - 1)).matches("^[0-9a-zA-Z]*$")) {
-                                    continue;
-                                }
-                            }
-                            
-                            if (i + word.length() != textLength - 1) {
-                                if (String.valueOf(text.charAt(i + word.length())).matches("^[0-9a-zA-Z]*$")) {
-                                    continue;
-                                }
-                            }
-                        }
+            IdentifierNode matched = findIdentifier(text, i, matches);
+            if (matched == null) {
+                continue;
+            }
+            
+            String word = matched.word;
+            
+            if (keyWord.length() > 1) {
+                String key = keyWord.substring(0, keyWord.length() - 1);
+                if (text.charAt(i - 1) == '"') {
+                    tokens.add(new StringToken(this, key, currentColumn - 1, currentLineToken, null, tokens.size(), keyWordStart, i));
+                } else {
+                    tokens.add(new Token(this, key, currentColumn - 1, currentLineToken, null, tokens.size(), keyWordStart, i));
+                }
+            }
+            keyWord.setLength(0);
+            
+            int start = i;
+            i += word.length() - 1;
+            currentColumn += word.length() - 1;
+            currentLineToken.append(word, 1, word.length());
+            tokens.add(new Token(this, word, currentColumn, currentLineToken, matched.identifier, tokens.size(), start, i + 1));
+            
+            continue loop;
+        }
+        
+        currentLineToken.build();
+        
+        return new TokenList(tokens.toArray(new Token[0]));
+    }
 
-                        if (identifier == Identifier.DOT) {
-                            if (i != 0) {
-                                if (Character.isDigit(text.charAt(i - 1))) {
-                                    if (i != textLength - 1) {
-                                        if (Character.isDigit(text.charAt(i + 1))) {
-                                            continue;
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        
-                        if (keyWord.length() > 1) {
-                            String key = keyWord.toString();
-                            if (text.charAt(i - 1) == '"') {
-                                tokens.add(new StringToken(this, key.substring(0, key.length() - 1), currentColumn - 1, currentLineToken, null));
-                            } else {
-                                tokens.add(new Token(this, key.substring(0, key.length() - 1), currentColumn - 1, currentLineToken, null));
+
+    private Token createToken(String key, int currentColumn, LineToken currentLineToken, boolean isString, int index, int startOffset, int endOffset) {
+        if (isString) {
+            return new StringToken(this, key, currentColumn, currentLineToken, null, index, startOffset, endOffset);
+        }
+        
+        return new Token(this, key, currentColumn, currentLineToken, Identifier.fromString(key), index, startOffset, endOffset);
+    }
+
+    /**
+     * Walks the trie from the given index and picks the identifier that should be split off there.
+     * When several words match (for example "=" and "=="), the one that comes first
+     * in {@link Identifier} and passes the adjoin checks wins.
+     *
+     * @param text Source text
+     * @param index Index of the character to check
+     * @param matches Reusable buffer for the matched nodes
+     * @return Matched node or null
+     */
+    private static IdentifierNode findIdentifier(String text, int index, IdentifierNode[] matches) {
+        int textLength = text.length();
+        int matchCount = 0;
+        
+        IdentifierNode node = IDENTIFIER_TRIE;
+        for (int i = index; i < textLength; i++) {
+            node = node.getChild(text.charAt(i));
+            if (node == null) {
+                break;
+            }
+            
+            if (node.identifier != null) {
+                matches[matchCount++] = node;
+            }
+        }
+        
+        IdentifierNode result = null;
+        for (int m = 0; m < matchCount; m++) {
+            IdentifierNode candidate = matches[m];
+            if (result != null && result.order < candidate.order) {
+                continue;
+            }
+            
+            Identifier identifier = candidate.identifier;
+            int wordLength = candidate.word.length();
+            
+            if (!identifier.adjoinable) {
+                if (index != 0) {
+                    if (isAlphaNumeric(text.charAt(index - 1))) {
+                        continue;
+                    }
+                }
+                
+                if (index + wordLength != textLength - 1) {
+                    if (isAlphaNumeric(text.charAt(index + wordLength))) {
+                        continue;
+                    }
+                }
+            }
+            
+            if (identifier == Identifier.DOT) {
+                if (index != 0) {
+                    if (Character.isDigit(text.charAt(index - 1))) {
+                        if (index != textLength - 1) {
+                            if (Character.isDigit(text.charAt(index + 1))) {
+                                continue;
                             }
                         }
-                        keyWord = new StringBuilder();
-                        
-                        i += word.length() - 1;
-                        currentColumn += word.length() - 1;
-                        currentLineToken.append(word.substring(1));
-                        tokens.add(new Token(this, word, currentColumn, currentLineToken, identifier));
-                        
-                        continue loop;
                     }
                 }
             }
+            
+            result = candidate;
         }
-    
-        currentLineToken.build();
-        
-        this.tokens.addAll(tokens);
         
-        return tokens;
+        return result;
     }
-    
+
+    private static boolean isAlphaNumeric(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
     private enum CommentType {
         LINE,
         BLOCK
     }
-    
+
+
+    private static class IdentifierNode {
+        
+        private final IdentifierNode[] children = new IdentifierNode[128];
+        
+        private Identifier identifier = null;
+        
+        private String word = null;
+        
+        private int order = 0;
+        
+        private IdentifierNode getChild(char c) {
+            return c < 128 ? children[c] : null;
+        }
+        
+        private void add(String word, Identifier identifier, int order) {
+            IdentifierNode node = this;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                IdentifierNode child = node.children[c];
+                if (child == null) {
+                    child = new IdentifierNode();
+                    node.children[c] = child;
+                }
+                node = child;
+            }
+            
+            node.identifier = identifier;
+            node.word = word;
+            node.order = order;
+        }
+
+    }
+
 }
@@ -0,0 +1,103 @@
+package org.contan_lang.syntax.parser;
+
+import org.contan_lang.syntax.Identifier;
+import org.contan_lang.syntax.exception.ContanParseException;
+import org.contan_lang.syntax.exception.ParserError;
+import org.contan_lang.syntax.tokens.Token;
+
+import java.util.List;
+
+/**
+ * Operator that divides a range of expression tokens.
+ * <p>
+ * A range is divided at the rightmost operator with the highest {@link Identifier#priority},
+ * skipping over the contents of parentheses. The nodes of a whole expression are built by
+ * one precedence-climbing pass, so each left and right range already knows its own operator.
+ */
+class OperatorNode {
+
+    //Range without any operator
+    static final OperatorNode NONE = new OperatorNode(null, -1);
+
+    final Token token;
+
+    //Index of the operator in the range divided by this node
+    final int index;
+
+    OperatorNode left = NONE;
+
+    OperatorNode right = NONE;
+
+    private OperatorNode(Token token, int index) {
+        this.token = token;
+        this.index = index;
+    }
+
+
+    static OperatorNode create(List<Token> tokens) throws ContanParseException {
+        int tokenLength = tokens.size();
+
+        OperatorNode[] stack = new OperatorNode[tokenLength];
+        int[] stackIndexes = new int[tokenLength];
+        int stackSize = 0;
+
+        Identifier previousIdentifier = null;
+
+        for (int i = 0; i < tokenLength; i++) {
+            Token token = tokens.get(i);
+
+            Identifier identifier = token.getIdentifier();
+
+            //Skip if the current token is not an Identifier.
+            if (identifier == null) {
+                previousIdentifier = null;
+                continue;
+            }
+
+            if (identifier.priority >= Identifier.IF.priority) {
+                ParserError.E0020.throwError("", token);
+            }
+
+            //Skip over the contents of the parentheses.
+            if (identifier == Identifier.BLOCK_OPERATOR_START) {
+                i += ParserUtil.getNestedToken(tokens, i, Identifier.BLOCK_OPERATOR_START, Identifier.BLOCK_OPERATOR_END, true, false).size() - 1;
+            }
+
+            Identifier beforeIdentifier = previousIdentifier;
+            previousIdentifier = identifier;
+
+            if (identifier.priority == 0) {
+                continue;
+            }
+
+            //A minus after an arithmetic operator is a sign.
+            if (identifier == Identifier.OPERATOR_MINUS) {
+                if (beforeIdentifier == Identifier.OPERATOR_PLUS || beforeIdentifier == Identifier.OPERATOR_MINUS
+                        || beforeIdentifier == Identifier.OPERATOR_MULTIPLY || beforeIdentifier == Identifier.OPERATOR_DIVISION) {
+                    continue;
+                }
+            }
+
+            //Operators on the left with the same or lower priority become the left range of this operator.
+            OperatorNode left = NONE;
+            while (stackSize != 0 && stack[stackSize - 1].token.getIdentifier().priority <= identifier.priority) {
+                left = stack[--stackSize];
+            }
+
+            int rangeStart = stackSize == 0 ? 0 : stackIndexes[stackSize - 1] + 1;
+            OperatorNode node = new OperatorNode(token, i - rangeStart);
+            node.left = left;
+
+            if (stackSize != 0) {
+                stack[stackSize - 1].right = node;
+            }
+
+            stack[stackSize] = node;
+            stackIndexes[stackSize] = i;
+            stackSize++;
+        }
+
+        return stackSize == 0 ? NONE : stack[0];
+    }
+
+}
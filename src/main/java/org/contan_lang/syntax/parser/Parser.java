@@ -4,6 +4,7 @@ import org.contan_lang.ContanEngine;
 import org.contan_lang.ContanModule;
 import org.contan_lang.environment.CancelStatus;
 import org.contan_lang.environment.Environment;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.evaluators.*;
 import org.contan_lang.operators.primitives.*;
 import org.contan_lang.syntax.Identifier;
@@ -15,6 +16,8 @@ import org.contan_lang.syntax.parser.environment.ScopeType;
 import org.contan_lang.syntax.tokens.BlockToken;
 import org.contan_lang.syntax.tokens.StringToken;
 import org.contan_lang.syntax.tokens.Token;
+import org.contan_lang.syntax.tokens.TokenList;
+import org.contan_lang.syntax.tokens.TokenListBuilder;
 import org.contan_lang.variables.primitive.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -51,9 +54,11 @@ public class Parser {
     private Scope moduleScope;
     
     private Environment moduleEnvironment;
+    
+    private List<GetVariableOperator> variableOperators;
 
     public synchronized ContanModule compile() throws ContanParseException {
-        List<Token> tokens = lexer.split();
+        List<Token> tokens = lexer.tokens;
 
         moduleFunctions = new ArrayList<>();
         preLinkedFunctions = new ArrayList<>();
@@ -62,6 +67,7 @@ public class Parser {
         moduleScope = new Scope(moduleName, null, ScopeType.MODULE);
         moduleEnvironment = new Environment(contanEngine, null, contanEngine.getMainThread(), null, true);
         moduleClasses = new ArrayList<>();
+        variableOperators = new ArrayList<>();
 
         //Register the class name first.
         boolean isClassDefine = false;
@@ -75,6 +81,11 @@ public class Parser {
 
         Evaluator globalEvaluator = parseBlock(moduleScope, null, tokens);
 
+        //All variables are defined in the layouts at this point
+        for (GetVariableOperator variableOperator : variableOperators) {
+            variableOperator.resolve();
+        }
+
         for (PreLinkedFunctionOperator functionEvaluator : preLinkedFunctions) {
             functionEvaluator.link(moduleFunctions, moduleEnvironment);
         }
@@ -159,7 +170,6 @@ public class Parser {
                         classFunctionBlocks.forEach(classBlock::addFunctionBlock);
                         classBlock.addInitializer(blockEval);
                         classInitializers.forEach(classBlock::addInitializer);
-                        contanEngine.addClassBlock(classBlock);
                         classFunctionBlocks.clear();
                         classInitializers.clear();
                         moduleClasses.add(classBlock);
@@ -191,12 +201,12 @@ public class Parser {
 
                         List<Token> args = ParserUtil.getDefinedArguments(firstTokens.subList(2, firstTokens.size()));
 
-                        Scope functionScope = new Scope(scope.getRootName() + "." + functionNameToken.getText(), scope, ScopeType.FUNCTION);
+                        Scope functionScope = new Scope(scope.getRootName() + "." + functionNameToken.getText(), scope, ScopeType.FUNCTION, new FrameLayout(null), true);
                         args.forEach(token -> functionScope.addVariable(token.getText()));
 
                         Evaluator blockEval = parseBlock(functionScope, null, blockTokens);
 
-                        FunctionBlock functionBlock = new FunctionBlock(contanEngine, functionNameToken, blockEval, args.toArray(new Token[0]));
+                        FunctionBlock functionBlock = new FunctionBlock(contanEngine, functionNameToken, blockEval, functionScope.getFrameLayout(), args.toArray(new Token[0]));
 
                         if (scope.getScopeType() == ScopeType.MODULE) {
                             moduleFunctions.add(functionBlock);
@@ -208,12 +218,14 @@ public class Parser {
                     }
 
                     case IF: {
+                        //The terms are evaluated in the current environment and the block in a new one
                         Scope ifScope = new Scope(scope.getRootName() + ".if", scope, ScopeType.FUNCTION);
+                        Scope blockScope = new Scope(scope.getRootName() + ".if", ifScope, ScopeType.FUNCTION, ifScope.createChildFrameLayout());
                         
                         Evaluator termsEval = parseBlock(ifScope, null, firstTokens.subList(1, firstTokens.size()));
-                        Evaluator blockEval = parseBlock(ifScope, null, blockTokens);
+                        Evaluator blockEval = parseBlock(blockScope, null, blockTokens);
                         
-                        IfEvaluator ifEvaluator = new IfEvaluator(contanEngine, first, termsEval, blockEval);
+                        IfEvaluator ifEvaluator = new IfEvaluator(contanEngine, first, termsEval, blockEval, blockScope.getFrameLayout());
                         scope.setPreviousIfEvaluator(ifEvaluator);
                         
                         return ifEvaluator;
@@ -223,12 +235,15 @@ public class Parser {
                         Scope ifScope = new Scope(scope.getRootName() + ".else", scope, ScopeType.FUNCTION);
 
                         if (firstTokens.get(Math.min(1, firstTokens.size() - 1)).getIdentifier() == Identifier.IF) {
+                            Scope blockScope = new Scope(scope.getRootName() + ".else", ifScope, ScopeType.FUNCTION, ifScope.createChildFrameLayout());
+                            
                             Evaluator termsEval = parseBlock(ifScope, null, firstTokens.subList(2, firstTokens.size()));
-                            Evaluator blockEval = parseBlock(ifScope, null, blockTokens);
+                            Evaluator blockEval = parseBlock(blockScope, null, blockTokens);
 
                             IfEvaluator previousIf = scope.getPreviousIfEvaluator();
 
-                            IfEvaluator ifEvaluator = new IfEvaluator(contanEngine, first, termsEval, blockEval);
+                            IfEvaluator ifEvaluator = new IfEvaluator(contanEngine, first, termsEval, blockEval, blockScope.getFrameLayout());
+                            scope.assignCoroutineIndex(ifEvaluator);
                             scope.setPreviousIfEvaluator(ifEvaluator);
 
                             if (previousIf == null) {
@@ -254,7 +269,7 @@ public class Parser {
                     }
 
                     case REPEAT: {
-                        Scope repeatScope = new Scope(scope.getRootName() + ".repeat", scope, ScopeType.FUNCTION);
+                        Scope repeatScope = new Scope(scope.getRootName() + ".repeat", scope, ScopeType.FUNCTION, scope.createChildFrameLayout());
 
                         String name = "";
                         Evaluator termsEval = null;
@@ -275,11 +290,11 @@ public class Parser {
 
                         Evaluator blockEval = parseBlock(repeatScope, null, blockTokens);
 
-                        return new RepeatEvaluator(contanEngine, first, termsEval, blockEval, name);
+                        return new RepeatEvaluator(contanEngine, first, termsEval, blockEval, name, repeatScope.getFrameLayout());
                     }
 
                     case ALL: {
-                        Scope allScope = new Scope(scope.getRootName() + ".all", scope, ScopeType.FUNCTION);
+                        Scope allScope = new Scope(scope.getRootName() + ".all", scope, ScopeType.FUNCTION, scope.createChildFrameLayout());
 
                         Token second = firstTokens.get(1);
                         Token third = firstTokens.get(2);
@@ -307,7 +322,7 @@ public class Parser {
                         allScope.addVariable(second.getText());
                         Evaluator blockEval = parseBlock(allScope, null, blockTokens);
 
-                        return new AllRepeatEvaluator(contanEngine, iterableEval, blockEval, name, second.getText());
+                        return new AllRepeatEvaluator(contanEngine, iterableEval, blockEval, name, second.getText(), allScope.getFrameLayout());
                     }
 
                     default: {
@@ -325,9 +340,10 @@ public class Parser {
             return NullEvaluator.INSTANCE;
         }
 
+        blockTokens = TokenList.of(blockTokens);
         
         List<Evaluator> blockEvaluators = new ArrayList<>();
-        List<Token> expressionTokens = new ArrayList<>();
+        TokenListBuilder expressionTokens = new TokenListBuilder((TokenList) blockTokens);
 
         //Parses a block or statement that has not yet been split.
         for (int i = 0; i < blockTokenLength; i++) {
@@ -379,22 +395,30 @@ public class Parser {
                         List<Token> block = ParserUtil.getNestedToken(blockTokens, i, Identifier.BLOCK_START, Identifier.BLOCK_END, false, false);
                         i += block.size() + 1;
     
-                        blockEvaluators.add(parseBlock(scope, first, block));
+                        Evaluator blockEvaluator = parseBlock(scope, first, block);
+                        scope.assignCoroutineIndex(blockEvaluator);
+                        blockEvaluators.add(blockEvaluator);
                         continue;
                     }
                 }
             }
     
     
+            int tokenIndex = i;
+            
             //Skip over the contents of the parentheses.
             if (identifier == Identifier.BLOCK_OPERATOR_START) {
                 List<Token> nestedTokens = ParserUtil.getNestedToken(blockTokens, i, Identifier.BLOCK_OPERATOR_START, Identifier.BLOCK_OPERATOR_END, true, false);
                 i += nestedTokens.size() - 1;
     
                 //Ignore line breaks.
-                nestedTokens = ParserUtil.removeLineBreaks(nestedTokens);
+                List<Token> removedTokens = ParserUtil.removeLineBreaks(nestedTokens);
                 
-                expressionTokens.addAll(nestedTokens);
+                if (removedTokens == nestedTokens) {
+                    expressionTokens.addRange(tokenIndex, i + 1);
+                } else {
+                    expressionTokens.addAll(removedTokens);
+                }
             }
             
             //Combine the sequence of tokens within a block into one.
@@ -413,21 +437,47 @@ public class Parser {
             
             //Parse expression
             if (identifier != Identifier.EXPRESSION_SPLIT && identifier != Identifier.BLOCK_OPERATOR_START && identifier != Identifier.BLOCK_GET_START) {
-                expressionTokens.add(token);
+                expressionTokens.add(tokenIndex);
             }
             
 
             if (identifier == Identifier.EXPRESSION_SPLIT || i == blockTokenLength - 1) {
-                blockEvaluators.add(parseExpression(scope, expressionTokens));
+                blockEvaluators.add(parseExpression(scope, expressionTokens.build()));
                 expressionTokens.clear();
             }
         }
 
-        return new Expressions(blockEvaluators.toArray(new Evaluator[0]));
+        Expressions expressions = new Expressions(blockEvaluators.toArray(new Evaluator[0]));
+        scope.assignCoroutineIndex(expressions);
+        return expressions;
     }
 
 
     public Evaluator parseExpression(Scope scope, List<Token> tokens) throws ContanParseException {
+        return parseExpression(scope, tokens, null);
+    }
+    
+    
+    /**
+     * @param operatorNode Operator dividing the given tokens if it is already known from the parent expression
+     */
+    private Evaluator parseExpression(Scope scope, List<Token> tokens, @Nullable OperatorNode operatorNode) throws ContanParseException {
+        Evaluator evaluator = parseExpressionEvaluator(scope, tokens, operatorNode);
+        scope.assignCoroutineIndex(evaluator);
+        return evaluator;
+    }
+
+
+    private static Evaluator asAssignmentTarget(Evaluator evaluator) {
+        //Fields are read as values unless they are assigned to
+        if (evaluator instanceof GetFieldOperator) {
+            ((GetFieldOperator) evaluator).setAssignmentTarget();
+        }
+        return evaluator;
+    }
+
+
+    private Evaluator parseExpressionEvaluator(Scope scope, List<Token> tokens, @Nullable OperatorNode operatorNode) throws ContanParseException {
         int tokenLength = tokens.size();
 
         if (tokenLength == 0) {
@@ -435,21 +485,26 @@ public class Parser {
         }
 
         //For get operator
-        List<Token> newTokenList = new ArrayList<>();
-        for (int i = 0; i < tokenLength; i++) {
-            Token token = tokens.get(i);
-
-            if (token.getIdentifier() == Identifier.BLOCK_GET_START) {
-                List<Token> nestedTokens = ParserUtil.getNestedToken(tokens, i, Identifier.BLOCK_GET_START, Identifier.BLOCK_GET_END, false, false);
-                i += nestedTokens.size() + 1;
-                newTokenList.add(new BlockToken(lexer, nestedTokens, Identifier.DOT, token));
-
-                continue;
+        TokenList tokenList = TokenList.of(tokens);
+        if (tokenList.containsBlockGetStart()) {
+            List<Token> newTokenList = new ArrayList<>();
+            for (int i = 0; i < tokenLength; i++) {
+                Token token = tokenList.get(i);
+    
+                if (token.getIdentifier() == Identifier.BLOCK_GET_START) {
+                    List<Token> nestedTokens = ParserUtil.getNestedToken(tokenList, i, Identifier.BLOCK_GET_START, Identifier.BLOCK_GET_END, false, false);
+                    i += nestedTokens.size() + 1;
+                    newTokenList.add(new BlockToken(lexer, nestedTokens, Identifier.DOT, token));
+    
+                    continue;
+                }
+    
+                newTokenList.add(token);
             }
-
-            newTokenList.add(token);
+            tokenList = TokenList.of(newTokenList);
+            operatorNode = null;
         }
-        tokens = newTokenList;
+        tokens = tokenList;
         tokenLength = tokens.size();
 
         //If there is only a portion enclosed in parentheses, remove the parentheses.
@@ -477,7 +532,7 @@ public class Parser {
                         return new DefineValueOperator(contanEngine, first, new ContanF64(contanEngine, Double.parseDouble(name)));
                     } else {
                         //Integer
-                        return new DefineValueOperator(contanEngine, first, new ContanI64(contanEngine, Long.parseLong(name)));
+                        return new DefineValueOperator(contanEngine, first, ContanI64.valueOf(contanEngine, Long.parseLong(name)));
                     }
                 } else {
                     //Not number
@@ -487,60 +542,23 @@ public class Parser {
                     }
         
                     scope.checkHasVariable(contanEngine, first);
-                    return new GetVariableOperator(contanEngine, first);
+                    
+                    GetVariableOperator operator = new GetVariableOperator(contanEngine, first, scope.getFrameLayout());
+                    variableOperators.add(operator);
+                    
+                    return operator;
                 }
             }
         }
 
         
-        //From left to right, it searches for the highest-priority Identifier and divides the surrounding sentence.
-        //When scanning, skip over the contents of the parentheses.
-        Token highestIdentifierToken = null;
-        Identifier highestIdentifier = null;
-        String word = "";
-        int currentHighestPriority = 0;
-        int highestIdentifierTokenIndex = 0;
-
-        Identifier previousIdentifier = null;
-        
-        for (int i = 0; i < tokenLength; i++) {
-            Token token = tokens.get(i);
-            
-            Identifier identifier = token.getIdentifier();
-            
-            //Skip if the current token is not an Identifier.
-            if (identifier == null) {
-                previousIdentifier = null;
-                continue;
-            }
-            
-            if (identifier.priority >= Identifier.IF.priority) {
-                ParserError.E0020.throwError("", token);
-            }
-    
-            //Skip over the contents of the parentheses.
-            if (identifier == Identifier.BLOCK_OPERATOR_START) {
-                i += ParserUtil.getNestedToken(tokens, i, Identifier.BLOCK_OPERATOR_START, Identifier.BLOCK_OPERATOR_END, true, false).size() - 1;
-            }
-            
-            if (identifier.priority >= currentHighestPriority && identifier.priority != 0) {
-                if (identifier == Identifier.OPERATOR_MINUS) {
-                    if (previousIdentifier == Identifier.OPERATOR_PLUS || previousIdentifier == Identifier.OPERATOR_MINUS
-                    || previousIdentifier == Identifier.OPERATOR_MULTIPLY || previousIdentifier == Identifier.OPERATOR_DIVISION) {
-                        continue;
-                    }
-                }
-                highestIdentifierToken = token;
-                highestIdentifier = identifier;
-                word = token.getText();
-                currentHighestPriority = identifier.priority;
-                highestIdentifierTokenIndex = i;
-            }
-
-            previousIdentifier = identifier;
+        //Find the rightmost operator with the highest priority and divide the surrounding sentence.
+        //A leading "-" may be a sign here even if it was not an operator in the parent expression.
+        if (operatorNode == null || tokens.get(0).getIdentifier() == Identifier.OPERATOR_MINUS) {
+            operatorNode = OperatorNode.create(tokens);
         }
 
-        if (highestIdentifier == null) {
+        if (operatorNode == OperatorNode.NONE) {
 
             //If function invoke
             if (tokens.get(1).getIdentifier() == Identifier.BLOCK_OPERATOR_START) {
@@ -557,6 +575,11 @@ public class Parser {
             return null;
         }
         
+        Token highestIdentifierToken = operatorNode.token;
+        Identifier highestIdentifier = highestIdentifierToken.getIdentifier();
+        String word = highestIdentifierToken.getText();
+        int highestIdentifierTokenIndex = operatorNode.index;
+        
         //Split sentences.
         List<Token> leftTokenList = tokens.subList(0, highestIdentifierTokenIndex);
         List<Token> rightTokenList = tokens.subList(highestIdentifierTokenIndex + 1, tokenLength);
@@ -585,23 +608,23 @@ public class Parser {
                         ParserError.E0011.throwError("", rightTokenList.toArray(new Token[0]));
                     }
                     
-                    Evaluator define = new CreateVariableOperator(contanEngine, rightTokenList.get(0));
-                    Evaluator set = parseExpression(scope, rightTokenList);
+                    Evaluator define = new CreateVariableOperator(contanEngine, rightTokenList.get(0), scope.getFrameLayout());
+                    Evaluator set = parseExpression(scope, rightTokenList, operatorNode.right);
                     
                     return new Expressions(define, set);
                 } else {
-                    return new CreateVariableOperator(contanEngine, rightTokenList.get(0));
+                    return new CreateVariableOperator(contanEngine, rightTokenList.get(0), scope.getFrameLayout());
                 }
             }
             
             //20 + 10
             case OPERATOR_PLUS: {
                 if (leftTokenList.size() == 0) {
-                    return parseExpression(scope, rightTokenList);
+                    return parseExpression(scope, rightTokenList, operatorNode.right);
                 }
                 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
                 
                 return new AddOperator(contanEngine, highestIdentifierToken, left, right);
             }
@@ -614,11 +637,11 @@ public class Parser {
 
                 if (leftTokenList.size() == 0) {
                     //-20 or -value
-                    return new InvertSignOperator(contanEngine, highestIdentifierToken, parseExpression(scope, rightTokenList));
+                    return new InvertSignOperator(contanEngine, highestIdentifierToken, parseExpression(scope, rightTokenList, operatorNode.right));
                 } else {
                     //20 - 10
-                    Evaluator left = parseExpression(scope, leftTokenList);
-                    Evaluator right = new InvertSignOperator(contanEngine, highestIdentifierToken, parseExpression(scope, rightTokenList));
+                    Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                    Evaluator right = new InvertSignOperator(contanEngine, highestIdentifierToken, parseExpression(scope, rightTokenList, operatorNode.right));
 
                     return new AddOperator(contanEngine, highestIdentifierToken, left, right);
                 }
@@ -630,8 +653,8 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
     
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
                 
                 return new MultiplyOperator(contanEngine, highestIdentifierToken, left, right);
             }
@@ -642,8 +665,8 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
 
                 return new DivisionOperator(contanEngine, highestIdentifierToken, left, right);
             }
@@ -654,8 +677,8 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
         
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
         
                 return new RemainderOperator(contanEngine, highestIdentifierToken, left, right);
             }
@@ -666,10 +689,10 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
 
-                return new SetValueOperator(contanEngine, highestIdentifierToken, left,
+                return new SetValueOperator(contanEngine, highestIdentifierToken, asAssignmentTarget(left),
                         new AddOperator(contanEngine, highestIdentifierToken, left, right));
             }
 
@@ -679,10 +702,10 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = new InvertSignOperator(contanEngine, highestIdentifierToken, parseExpression(scope, rightTokenList));
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = new InvertSignOperator(contanEngine, highestIdentifierToken, parseExpression(scope, rightTokenList, operatorNode.right));
 
-                return new SetValueOperator(contanEngine, highestIdentifierToken, left,
+                return new SetValueOperator(contanEngine, highestIdentifierToken, asAssignmentTarget(left),
                         new AddOperator(contanEngine, highestIdentifierToken, left, right));
             }
 
@@ -692,10 +715,10 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
 
-                return new SetValueOperator(contanEngine, highestIdentifierToken, left,
+                return new SetValueOperator(contanEngine, highestIdentifierToken, asAssignmentTarget(left),
                         new MultiplyOperator(contanEngine, highestIdentifierToken, left, right));
             }
 
@@ -705,10 +728,10 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
 
-                return new SetValueOperator(contanEngine, highestIdentifierToken, left,
+                return new SetValueOperator(contanEngine, highestIdentifierToken, asAssignmentTarget(left),
                         new DivisionOperator(contanEngine, highestIdentifierToken, left, right));
             }
 
@@ -718,10 +741,10 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
         
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
         
-                return new SetValueOperator(contanEngine, highestIdentifierToken, left,
+                return new SetValueOperator(contanEngine, highestIdentifierToken, asAssignmentTarget(left),
                         new RemainderOperator(contanEngine, highestIdentifierToken, left, right));
             }
             
@@ -731,8 +754,8 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
                 
                 return new EqualOperator(contanEngine, highestIdentifierToken, left, right);
             }
@@ -743,10 +766,10 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
 
-                return new ExchangeOperator(contanEngine, highestIdentifierToken, left, right);
+                return new ExchangeOperator(contanEngine, highestIdentifierToken, asAssignmentTarget(left), asAssignmentTarget(right));
             }
             
             //a == 2 && b == 40
@@ -758,8 +781,8 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
     
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
     
                 return new BooleanOperator(contanEngine, highestIdentifierToken, highestIdentifier, left, right);
             }
@@ -770,10 +793,10 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
     
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
                 
-                return new SetValueOperator(contanEngine, highestIdentifierToken, left, right);
+                return new SetValueOperator(contanEngine, highestIdentifierToken, asAssignmentTarget(left), right);
             }
 
             //some instanceof Class
@@ -782,8 +805,8 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
 
                 return new InstanceOfOperator(contanEngine, highestIdentifierToken, left, right);
             }
@@ -798,7 +821,7 @@ public class Parser {
                     ParserError.E0036.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
 
                 return new NotOperator(contanEngine, highestIdentifierToken, right);
             }
@@ -809,8 +832,8 @@ public class Parser {
                     ParserError.E0012.throwError("", highestIdentifierToken);
                 }
 
-                Evaluator left = parseExpression(scope, leftTokenList);
-                Evaluator right = parseExpression(scope, rightTokenList);
+                Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
+                Evaluator right = parseExpression(scope, rightTokenList, operatorNode.right);
 
                 Evaluator equal = new EqualOperator(contanEngine, highestIdentifierToken, left, right);
 
@@ -819,12 +842,12 @@ public class Parser {
 
             //true
             case TRUE: {
-                return new DefineValueOperator(contanEngine, highestIdentifierToken, new ContanBoolean(contanEngine, true));
+                return new DefineValueOperator(contanEngine, highestIdentifierToken, ContanBoolean.valueOf(true));
             }
 
             //false
             case FALSE: {
-                return new DefineValueOperator(contanEngine, highestIdentifierToken, new ContanBoolean(contanEngine, false));
+                return new DefineValueOperator(contanEngine, highestIdentifierToken, ContanBoolean.valueOf(false));
             }
             
             //null
@@ -862,7 +885,7 @@ public class Parser {
                         return null;
                     }
                     
-                    Evaluator left = parseExpression(scope, leftTokenList);
+                    Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
                     
                     List<Token> keyTokens = ((BlockToken) highestIdentifierToken).tokens;
                     if (keyTokens.size() == 0) {
@@ -886,7 +909,7 @@ public class Parser {
                         //function
                         List<Token> argumentTokenList = ParserUtil.getNestedToken(rightTokenList, 1, Identifier.BLOCK_OPERATOR_START, Identifier.BLOCK_OPERATOR_END, false, false);
         
-                        Evaluator left = parseExpression(scope, leftTokenList);
+                        Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
                         Evaluator[] arguments = parseArgumentEvaluators(scope, argumentTokenList);
         
                         PreLinkedFunctionOperator operator = new PreLinkedFunctionOperator(contanEngine, nameToken, left, arguments);
@@ -895,7 +918,7 @@ public class Parser {
                         return operator;
                     } else {
                         //field
-                        Evaluator left = parseExpression(scope, leftTokenList);
+                        Evaluator left = parseExpression(scope, leftTokenList, operatorNode.left);
                         return new GetFieldOperator(contanEngine, nameToken, left);
                     }
                 }
@@ -941,7 +964,7 @@ public class Parser {
                 
                 argTokens = ParserUtil.getDefinedArguments(argTokens);
                 
-                Scope newScope = new Scope(scope.getRootName() + ".lambda", scope, ScopeType.FUNCTION);
+                Scope newScope = new Scope(scope.getRootName() + ".lambda", scope, ScopeType.FUNCTION, scope.createChildFrameLayout(), true);
                 argTokens.forEach(token -> newScope.addVariable(token.getText()));
                 
                 Evaluator right;
@@ -949,10 +972,10 @@ public class Parser {
                 if (rightTokenList.get(0) instanceof BlockToken) {
                     right = parseBlock(newScope, null, ((BlockToken) rightTokenList.get(0)).tokens);
                 } else {
-                    right = parseExpression(newScope, rightTokenList);
+                    right = parseExpression(newScope, rightTokenList, operatorNode.right);
                 }
                 
-                FunctionBlock functionBlock = new FunctionBlock(contanEngine, highestIdentifierToken, right, argTokens.toArray(new Token[0]));
+                FunctionBlock functionBlock = new FunctionBlock(contanEngine, highestIdentifierToken, right, newScope.getFrameLayout(), argTokens.toArray(new Token[0]));
                 
                 return new DefineFunctionExpressionOperator(contanEngine, highestIdentifierToken, functionBlock);
             }
@@ -966,7 +989,7 @@ public class Parser {
                     ParserError.E0023.throwError("", highestIdentifierToken);
                 }
 
-                Scope newScope = new Scope(scope.getRootName() + ".async", scope, ScopeType.FUNCTION);
+                Scope newScope = new Scope(scope.getRootName() + ".async", scope, ScopeType.FUNCTION, scope.createChildFrameLayout(), true);
 
                 Evaluator right;
 
@@ -977,7 +1000,7 @@ public class Parser {
                     return null;
                 }
 
-                return new AsyncTaskOperator(contanEngine, highestIdentifierToken, right);
+                return new AsyncTaskOperator(contanEngine, highestIdentifierToken, newScope.getFrameLayout(), right);
             }
 
             case SYNC: {
@@ -989,7 +1012,7 @@ public class Parser {
                     ParserError.E0023.throwError("", highestIdentifierToken);
                 }
 
-                Scope newScope = new Scope(scope.getRootName() + ".sync", scope, ScopeType.FUNCTION);
+                Scope newScope = new Scope(scope.getRootName() + ".sync", scope, ScopeType.FUNCTION, scope.createChildFrameLayout(), true);
 
                 int index = 0;
                 for (Token token : rightTokenList) {
@@ -1015,7 +1038,7 @@ public class Parser {
                     return null;
                 }
 
-                return new SyncTaskOperator(contanEngine, highestIdentifierToken, thread, right);
+                return new SyncTaskOperator(contanEngine, highestIdentifierToken, newScope.getFrameLayout(), thread, right);
             }
             
             case DELAY: {
@@ -1027,7 +1050,7 @@ public class Parser {
                     ParserError.E0031.throwError("", highestIdentifierToken);
                 }
     
-                Scope newScope = new Scope(scope.getRootName() + ".sync", scope, ScopeType.FUNCTION);
+                Scope newScope = new Scope(scope.getRootName() + ".sync", scope, ScopeType.FUNCTION, scope.createChildFrameLayout(), true);
     
                 int index = 0;
                 boolean hasBlock = false;
@@ -1057,7 +1080,7 @@ public class Parser {
                         return null;
                     }
     
-                    return new DelayTaskOperator(contanEngine, highestIdentifierToken, delayTicks, right);
+                    return new DelayTaskOperator(contanEngine, highestIdentifierToken, newScope.getFrameLayout(), delayTicks, right);
                 } else {
                     return new DelayOperator(contanEngine, highestIdentifierToken, delayTicks);
                 }
@@ -1079,7 +1102,7 @@ public class Parser {
                 
                 argTokens = ParserUtil.getDefinedArguments(argTokens);
     
-                Scope newScope = new Scope(scope.getRootName() + ".function_expression", scope, ScopeType.FUNCTION);
+                Scope newScope = new Scope(scope.getRootName() + ".function_expression", scope, ScopeType.FUNCTION, scope.createChildFrameLayout(), true);
                 argTokens.forEach(token -> newScope.addVariable(token.getText()));
     
                 Evaluator blockEval;
@@ -1091,7 +1114,7 @@ public class Parser {
                     blockEval = null;
                 }
     
-                FunctionBlock functionBlock = new FunctionBlock(contanEngine, highestIdentifierToken, blockEval, argTokens.toArray(new Token[0]));
+                FunctionBlock functionBlock = new FunctionBlock(contanEngine, highestIdentifierToken, blockEval, newScope.getFrameLayout(), argTokens.toArray(new Token[0]));
     
                 return new DefineFunctionExpressionOperator(contanEngine, highestIdentifierToken, functionBlock);
             }
@@ -1105,7 +1128,7 @@ public class Parser {
                 if (rightTokenList.size() == 0) {
                     right = NullEvaluator.INSTANCE;
                 } else {
-                    right = parseExpression(scope, rightTokenList);
+                    right = parseExpression(scope, rightTokenList, operatorNode.right);
                 }
 
                 return new SetReturnValueOperator(contanEngine, highestIdentifierToken, right);
@@ -1148,26 +1171,28 @@ public class Parser {
     private Evaluator[] parseArgumentEvaluators(Scope scope, List<Token> tokens) throws ContanParseException {
         int length = tokens.size();
 
-        List<Token> evalTokens = new ArrayList<>();
+        TokenList tokenList = TokenList.of(tokens);
+        TokenListBuilder evalTokens = new TokenListBuilder(tokenList);
         List<Evaluator> evaluators = new ArrayList<>();
 
         for (int i = 0; i < length; i++) {
-            Token token = tokens.get(i);
+            Token token = tokenList.get(i);
             Identifier identifier = token.getIdentifier();
+            int tokenIndex = i;
     
             //Skip over the contents of the parentheses.
             if (identifier == Identifier.BLOCK_OPERATOR_START) {
-                List<Token> nestedTokenList = ParserUtil.getNestedToken(tokens, i, Identifier.BLOCK_OPERATOR_START, Identifier.BLOCK_OPERATOR_END, true, false);
+                List<Token> nestedTokenList = ParserUtil.getNestedToken(tokenList, i, Identifier.BLOCK_OPERATOR_START, Identifier.BLOCK_OPERATOR_END, true, false);
                 i += nestedTokenList.size() - 1;
-                evalTokens.addAll(nestedTokenList);
+                evalTokens.addRange(tokenIndex, i + 1);
             }
 
             if (identifier != Identifier.ARGUMENT_SPLIT && identifier != Identifier.BLOCK_OPERATOR_START && identifier != Identifier.BLOCK_OPERATOR_END) {
-                evalTokens.add(token);
+                evalTokens.add(tokenIndex);
             }
 
             if (identifier == Identifier.ARGUMENT_SPLIT || i == length - 1) {
-                evaluators.add(new RemoveReferenceOperator(contanEngine, tokens.get(length - 1), parseBlock(scope, null, evalTokens)));
+                evaluators.add(new RemoveReferenceOperator(contanEngine, tokenList.get(length - 1), parseBlock(scope, null, evalTokens.build())));
                 evalTokens.clear();
             }
         }
@@ -4,6 +4,7 @@ import org.contan_lang.syntax.Identifier;
 import org.contan_lang.syntax.exception.ContanParseException;
 import org.contan_lang.syntax.exception.ParserError;
 import org.contan_lang.syntax.tokens.Token;
+import org.contan_lang.syntax.tokens.TokenList;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +13,21 @@ public class ParserUtil {
 
     public static List<Token> getNestedToken(List<Token> tokens, int startIndex, Identifier start, Identifier end, boolean containStartAndEnd, boolean checkLastIsEndOfTopNest) throws ContanParseException {
         int length = tokens.size();
+        
+        //Jump straight to the matching bracket
+        if (tokens instanceof TokenList && startIndex < length && tokens.get(startIndex).getIdentifier() == start) {
+            TokenList tokenList = (TokenList) tokens;
+            int endIndex = tokenList.getPairIndex(startIndex);
+            
+            if (endIndex != -1 && tokenList.get(endIndex).getIdentifier() == end) {
+                if (checkLastIsEndOfTopNest && endIndex != length - 1) {
+                    ParserError.E0002.throwError(end.words[0], tokens.get(startIndex));
+                }
+                
+                return containStartAndEnd ? tokenList.subList(startIndex, endIndex + 1) : tokenList.subList(startIndex + 1, endIndex);
+            }
+        }
+        
         List<Token> nestedToken = new ArrayList<>();
         int nest = 0;
         for (int i = startIndex; i < length; i++) {
@@ -51,6 +67,14 @@ public class ParserUtil {
     
     public static List<Token> getNestedTokenIfEnclosed(List<Token> tokens, Identifier start, Identifier end) throws ContanParseException {
         int length = tokens.size();
+        
+        if (tokens instanceof TokenList && length >= 2 && tokens.get(0).getIdentifier() == start) {
+            TokenList tokenList = (TokenList) tokens;
+            if (tokenList.getPairIndex(0) == length - 1 && tokens.get(length - 1).getIdentifier() == end) {
+                return tokenList.subList(1, length - 1);
+            }
+        }
+        
         List<Token> nestedToken = new ArrayList<>();
         int nest = 0;
         for (int i = 0; i < length; i++) {
@@ -83,7 +107,8 @@ public class ParserUtil {
     
     
     public static List<Token> removeLineBreaks(List<Token> tokens) throws ContanParseException {
-        List<Token> result = new ArrayList<>();
+        //Only copied once a line break is found
+        List<Token> result = null;
         
         int length = tokens.size();
         
@@ -95,16 +120,22 @@ public class ParserUtil {
             if (identifier == Identifier.BLOCK_START) {
                 List<Token> nested = getNestedToken(tokens, i, Identifier.BLOCK_START, Identifier.BLOCK_END, true, false);
                 i += nested.size() - 1;
-                result.addAll(nested);
+                if (result != null) {
+                    result.addAll(nested);
+                }
                 continue;
             }
             
-            if (!token.getText().equals("\n")) {
+            if (token.getText().equals("\n")) {
+                if (result == null) {
+                    result = new ArrayList<>(tokens.subList(0, i));
+                }
+            } else if (result != null) {
                 result.add(token);
             }
         }
         
-        return result;
+        return result == null ? tokens : result;
     }
     
     
@@ -148,17 +179,17 @@ public class ParserUtil {
 
     public static List<Token> getTokensUntilFoundIdentifier(List<Token> tokens, int startIndex, Identifier end) throws ContanParseException {
         int length = tokens.size();
-        List<Token> nestedToken = new ArrayList<>();
         for (int i = startIndex; i < length; i++) {
             Token token = tokens.get(i);
 
             Identifier identifier = token.getIdentifier();
 
             if (identifier == end) {
-                return nestedToken;
+                if (tokens instanceof TokenList) {
+                    return tokens.subList(startIndex, i);
+                }
+                return new ArrayList<>(tokens.subList(startIndex, i));
             }
-
-            nestedToken.add(token);
         }
 
         ParserError.E0002.throwError(end.words[0], tokens.get(startIndex));
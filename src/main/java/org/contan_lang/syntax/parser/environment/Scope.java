@@ -1,12 +1,15 @@
 package org.contan_lang.syntax.parser.environment;
 
 import org.contan_lang.ContanEngine;
+import org.contan_lang.environment.FrameLayout;
 import org.contan_lang.evaluators.ClassBlock;
+import org.contan_lang.evaluators.Evaluator;
 import org.contan_lang.evaluators.IfEvaluator;
 import org.contan_lang.syntax.exception.ContanParseException;
 import org.contan_lang.syntax.exception.ParserError;
 import org.contan_lang.syntax.exception.UnexpectedSyntaxException;
 import org.contan_lang.syntax.tokens.Token;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -23,23 +26,58 @@ public class Scope {
 
     public final ClassBlock classBlock;
 
+    //Layout of the runtime environment of this scope, shared with the parent if this scope does not create one
+    private final FrameLayout frameLayout;
+
+    //Scope of the function whose environment holds the coroutine statuses of this scope
+    private final Scope returnScope;
+
+    private int coroutineIndexCount = 0;
+
     private IfEvaluator previousIfEvaluator = null;
 
     public Scope(String rootName, Scope parent, ScopeType scopeType) {
-        this(rootName, parent, scopeType, null);
+        this(rootName, parent, scopeType, (ClassBlock) null);
     }
 
     public Scope(String rootName, Scope parent, ScopeType scopeType, ClassBlock classBlock) {
+        this(rootName, parent, scopeType, classBlock, parent == null ? null : parent.frameLayout, false);
+    }
+
+    public Scope(String rootName, Scope parent, ScopeType scopeType, @Nullable FrameLayout frameLayout) {
+        this(rootName, parent, scopeType, null, frameLayout, false);
+    }
+
+    /**
+     * @param canHasReturnValue Whether the environment of this scope is created with a return value,
+     *                          like the environments of functions and tasks
+     */
+    public Scope(String rootName, Scope parent, ScopeType scopeType, @Nullable FrameLayout frameLayout, boolean canHasReturnValue) {
+        this(rootName, parent, scopeType, null, frameLayout, canHasReturnValue);
+    }
+
+    private Scope(String rootName, Scope parent, ScopeType scopeType, ClassBlock classBlock, @Nullable FrameLayout frameLayout, boolean canHasReturnValue) {
         this.rootName = rootName;
         this.parent = parent;
         this.scopeType = scopeType;
         this.classBlock = classBlock;
+        this.frameLayout = frameLayout;
+        this.returnScope = canHasReturnValue || parent == null ? this : parent.returnScope;
     }
 
     public ScopeType getScopeType() {return scopeType;}
 
     public String getRootName() {return rootName;}
 
+    public @Nullable FrameLayout getFrameLayout() {return frameLayout;}
+
+    /**
+     * Create the layout for a runtime environment whose parent is the environment of this scope.
+     *
+     * @return New layout
+     */
+    public FrameLayout createChildFrameLayout() {return new FrameLayout(frameLayout);}
+
     public boolean hasVariable(String name) {
         if (definedVariables.contains(name)) {
             return true;
@@ -52,7 +90,30 @@ public class Scope {
         return parent.hasVariable(name);
     }
 
-    public void addVariable(String name) {definedVariables.add(name);}
+    public void addVariable(String name) {
+        definedVariables.add(name);
+        if (frameLayout != null) {
+            frameLayout.addVariable(name);
+        }
+    }
+    
+    /**
+     * Give the evaluator the next index in the coroutine statuses of its function.
+     * Evaluators that already have an index keep it.
+     *
+     * @param evaluator Evaluator parsed in this scope
+     */
+    public void assignCoroutineIndex(Evaluator evaluator) {
+        if (evaluator.getCoroutineIndex() != -1) {
+            return;
+        }
+
+        int index = returnScope.coroutineIndexCount;
+        evaluator.setCoroutineIndex(index);
+        if (evaluator.getCoroutineIndex() == index) {
+            returnScope.coroutineIndexCount++;
+        }
+    }
     
     public IfEvaluator getPreviousIfEvaluator() {return previousIfEvaluator;}
     
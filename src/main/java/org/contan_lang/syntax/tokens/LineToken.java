@@ -16,6 +16,8 @@ public class LineToken {
 
     public void append(String s) {stringBuilder.append(s);}
 
+    public void append(CharSequence s, int start, int end) {stringBuilder.append(s, start, end);}
+
     public void build() {
         lineText = stringBuilder.toString();}
 
@@ -10,6 +10,10 @@ public class StringToken extends Token {
         super(lexer, text, endIndex, lineToken, identifier);
     }
     
+    public StringToken(Lexer lexer, String text, int endIndex, LineToken lineToken, @Nullable Identifier identifier, int index, int startOffset, int endOffset) {
+        super(lexer, text, endIndex, lineToken, identifier, index, startOffset, endOffset);
+    }
+    
     @Override
     public String toString() {
         return "\"" + text + "\"";
@@ -12,14 +12,25 @@ public class Token {
     public final int startColumnIndex;
     public final int endColumnIndex;
     public final LineToken lineToken;
+    //Position in the lexer token array and offsets in the lexer text, -1 if the token was not created by the lexer
+    public final int index;
+    public final int startOffset;
+    public final int endOffset;
     
     public Token(Lexer lexer, String text, int endColumnIndex, LineToken lineToken, @Nullable Identifier identifier) {
+        this(lexer, text, endColumnIndex, lineToken, identifier, -1, -1, -1);
+    }
+    
+    public Token(Lexer lexer, String text, int endColumnIndex, LineToken lineToken, @Nullable Identifier identifier, int index, int startOffset, int endOffset) {
         this.lexer = lexer;
         this.text = text;
         this.identifier = identifier;
         this.startColumnIndex = Math.max(0, endColumnIndex - text.length());
         this.endColumnIndex = endColumnIndex;
         this.lineToken = lineToken;
+        this.index = index;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
     }
     
     public Lexer getLexer() {return lexer;}
@@ -29,8 +40,7 @@ public class Token {
     public @Nullable Identifier getIdentifier() {return identifier;}
     
     public Token getLeft() {
-        int index = lexer.tokens.indexOf(this);
-        if (index == 0) {
+        if (index <= 0) {
             return this;
         }
         
@@ -38,8 +48,7 @@ public class Token {
     }
     
     public Token getRight() {
-        int index = lexer.tokens.indexOf(this);
-        if (index == lexer.tokens.size() - 1) {
+        if (index < 0 || index == lexer.tokens.size() - 1) {
             return this;
         }
     
@@ -0,0 +1,155 @@
+package org.contan_lang.syntax.tokens;
+
+import org.contan_lang.syntax.Identifier;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable view over a range of a token array.
+ * Sub lists share the same array, so slicing is O(1) and never nests views.
+ * The matching brackets of "()", "{}" and "[]" are indexed once when the array is created.
+ */
+public class TokenList extends AbstractList<Token> implements RandomAccess {
+
+    public static final TokenList EMPTY = new TokenList(new Token[0]);
+
+    private final Token[] tokens;
+    //Index of the matching bracket for each token in the array, -1 if there is none
+    private final int[] pairIndexes;
+    //Number of "[" tokens before each index of the array
+    private final int[] blockGetStartCounts;
+    private final int fromIndex;
+    private final int toIndex;
+
+    public TokenList(Token[] tokens) {
+        this(tokens, new int[tokens.length], new int[tokens.length + 1], 0, tokens.length);
+        createIndexes(tokens, pairIndexes, blockGetStartCounts);
+    }
+
+    private TokenList(Token[] tokens, int[] pairIndexes, int[] blockGetStartCounts, int fromIndex, int toIndex) {
+        this.tokens = tokens;
+        this.pairIndexes = pairIndexes;
+        this.blockGetStartCounts = blockGetStartCounts;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    public static TokenList of(List<Token> tokens) {
+        if (tokens instanceof TokenList) {
+            return (TokenList) tokens;
+        }
+        return new TokenList(tokens.toArray(new Token[0]));
+    }
+
+    /**
+     * Get the index of the bracket that matches the token at the given index.
+     * Each kind of bracket is matched independently of the others.
+     *
+     * @param index Index in this list
+     * @return Index of the matching bracket in this list, or -1 if it is not matched inside this list
+     */
+    public int getPairIndex(int index) {
+        if (index < 0 || index >= toIndex - fromIndex) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        int pairIndex = pairIndexes[fromIndex + index];
+        if (pairIndex < fromIndex || pairIndex >= toIndex) {
+            return -1;
+        }
+        return pairIndex - fromIndex;
+    }
+
+    public boolean containsBlockGetStart() {return blockGetStartCounts[toIndex] != blockGetStartCounts[fromIndex];}
+
+    @Override
+    public Token get(int index) {
+        if (index < 0 || index >= toIndex - fromIndex) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return tokens[fromIndex + index];
+    }
+
+    @Override
+    public int size() {return toIndex - fromIndex;}
+
+    @Override
+    public TokenList subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size());
+        }
+        return new TokenList(tokens, pairIndexes, blockGetStartCounts, this.fromIndex + fromIndex, this.fromIndex + toIndex);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Token) {
+            //Tokens created by the lexer know their own position
+            int index = ((Token) o).index;
+            if (index >= fromIndex && index < toIndex && tokens[index] == o) {
+                return index - fromIndex;
+            }
+        }
+        return super.indexOf(o);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOfRange(tokens, fromIndex, toIndex, Object[].class);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T[] toArray(T[] a) {
+        int size = size();
+        if (a.length < size) {
+            return (T[]) Arrays.copyOfRange(tokens, fromIndex, toIndex, a.getClass());
+        }
+        System.arraycopy(tokens, fromIndex, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+
+    private static void createIndexes(Token[] tokens, int[] pairIndexes, int[] blockGetStartCounts) {
+        int length = tokens.length;
+        Arrays.fill(pairIndexes, -1);
+
+        int[][] stacks = new int[3][length];
+        int[] stackSizes = new int[3];
+
+        for (int i = 0; i < length; i++) {
+            Identifier identifier = tokens[i].getIdentifier();
+            blockGetStartCounts[i + 1] = blockGetStartCounts[i] + (identifier == Identifier.BLOCK_GET_START ? 1 : 0);
+            if (identifier == null) {
+                continue;
+            }
+
+            int type;
+            boolean isStart;
+            switch (identifier) {
+                case BLOCK_OPERATOR_START: type = 0; isStart = true; break;
+                case BLOCK_OPERATOR_END: type = 0; isStart = false; break;
+                case BLOCK_START: type = 1; isStart = true; break;
+                case BLOCK_END: type = 1; isStart = false; break;
+                case BLOCK_GET_START: type = 2; isStart = true; break;
+                case BLOCK_GET_END: type = 2; isStart = false; break;
+                default: continue;
+            }
+
+            if (isStart) {
+                stacks[type][stackSizes[type]++] = i;
+            } else if (stackSizes[type] != 0) {
+                int start = stacks[type][--stackSizes[type]];
+                pairIndexes[start] = i;
+                pairIndexes[i] = start;
+            }
+        }
+    }
+
+}
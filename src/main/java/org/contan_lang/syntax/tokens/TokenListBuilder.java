@@ -0,0 +1,75 @@
+package org.contan_lang.syntax.tokens;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects tokens taken from a {@link TokenList}.
+ * As long as the added tokens form one continuous range of the source list,
+ * the result is a view of that range and nothing is copied.
+ */
+public class TokenListBuilder {
+
+    private final TokenList tokens;
+
+    private int fromIndex = 0;
+    private int toIndex = 0;
+    private List<Token> copiedTokens = null;
+
+    public TokenListBuilder(TokenList tokens) {
+        this.tokens = tokens;
+    }
+
+    public void add(int index) {addRange(index, index + 1);}
+
+    public void addRange(int fromIndex, int toIndex) {
+        if (copiedTokens == null) {
+            if (this.fromIndex == this.toIndex) {
+                this.fromIndex = fromIndex;
+                this.toIndex = toIndex;
+                return;
+            }
+
+            if (this.toIndex == fromIndex) {
+                this.toIndex = toIndex;
+                return;
+            }
+
+            copy();
+        }
+
+        copiedTokens.addAll(tokens.subList(fromIndex, toIndex));
+    }
+
+    public void add(Token token) {
+        if (copiedTokens == null) {
+            copy();
+        }
+        copiedTokens.add(token);
+    }
+
+    public void addAll(List<Token> tokens) {
+        if (copiedTokens == null) {
+            copy();
+        }
+        copiedTokens.addAll(tokens);
+    }
+
+    private void copy() {
+        copiedTokens = new ArrayList<>(tokens.subList(fromIndex, toIndex));
+    }
+
+    public TokenList build() {
+        if (copiedTokens == null) {
+            return tokens.subList(fromIndex, toIndex);
+        }
+        return TokenList.of(copiedTokens);
+    }
+
+    public void clear() {
+        fromIndex = 0;
+        toIndex = 0;
+        copiedTokens = null;
+    }
+
+}
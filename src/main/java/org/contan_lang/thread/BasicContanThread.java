@@ -3,6 +3,7 @@ package org.contan_lang.thread;
 import org.contan_lang.ContanEngine;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BasicContanThread implements ContanThread {
     
@@ -10,6 +11,10 @@ public class BasicContanThread implements ContanThread {
     
     private final ExecutorService javaThread = Executors.newSingleThreadExecutor();
     
+    private final AtomicInteger queuedTaskCount = new AtomicInteger();
+    
+    private final AtomicInteger runningTaskCount = new AtomicInteger();
+    
     public BasicContanThread(ContanEngine contanEngine) {
         this.contanEngine = contanEngine;
     }
@@ -19,14 +24,38 @@ public class BasicContanThread implements ContanThread {
     
     @Override
     public <T> T runTaskImmediately(Callable<T> task) throws ExecutionException, InterruptedException {
-        Future<T> future = javaThread.submit(task);
+        Future<T> future = submit(task);
         return future.get();
     }
     
     @Override
     public <T> void scheduleTask(Callable<T> task) {
-        javaThread.submit(task);
+        submit(task);
+    }
+    
+    private <T> Future<T> submit(Callable<T> task) {
+        queuedTaskCount.incrementAndGet();
+        try {
+            return javaThread.submit(() -> {
+                queuedTaskCount.decrementAndGet();
+                runningTaskCount.incrementAndGet();
+                try {
+                    return task.call();
+                } finally {
+                    runningTaskCount.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queuedTaskCount.decrementAndGet();
+            throw e;
+        }
     }
+    
+    @Override
+    public int getQueuedTaskCount() {return queuedTaskCount.get();}
+    
+    @Override
+    public int getRunningTaskCount() {return runningTaskCount.get();}
 
     @Override
     public boolean shutdownWithAwait(long timeout, TimeUnit timeUnit) throws InterruptedException {
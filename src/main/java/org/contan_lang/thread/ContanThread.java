@@ -24,4 +24,16 @@ public interface ContanThread {
     
     ContanEngine getContanEngine();
     
+    /**
+     * Number of tasks waiting to be run, used by {@link ThreadPlacementPolicy} to balance async tasks.
+     * @return Number of tasks, 0 if the implementation does not count them
+     */
+    default int getQueuedTaskCount() {return 0;}
+    
+    /**
+     * Number of tasks being run right now.
+     * @return Number of tasks, 0 if the implementation does not count them
+     */
+    default int getRunningTaskCount() {return 0;}
+    
 }
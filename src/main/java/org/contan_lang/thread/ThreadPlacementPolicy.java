@@ -0,0 +1,95 @@
+package org.contan_lang.thread;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the async thread that a new async task runs on.
+ */
+public interface ThreadPlacementPolicy {
+
+    /**
+     * @param threads Async threads of the engine, not empty
+     * @param callerThread Thread that starts the task, null if unknown
+     * @return Thread to run the task on
+     */
+    ContanThread select(List<ContanThread> threads, @Nullable ContanThread callerThread);
+
+
+    /**
+     * Each thread in turn, regardless of its load.
+     */
+    static ThreadPlacementPolicy roundRobin() {
+        AtomicInteger nextCount = new AtomicInteger();
+        return (threads, callerThread) -> threads.get(Math.floorMod(nextCount.getAndIncrement(), threads.size()));
+    }
+
+    /**
+     * The thread with the fewest queued and running tasks, the first one on a tie.
+     */
+    static ThreadPlacementPolicy leastLoaded() {
+        return (threads, callerThread) -> {
+            ContanThread selected = threads.get(0);
+            int selectedLoad = getLoad(selected);
+
+            for (int i = 1; i < threads.size() && selectedLoad != 0; i++) {
+                ContanThread thread = threads.get(i);
+                int load = getLoad(thread);
+                if (load < selectedLoad) {
+                    selected = thread;
+                    selectedLoad = load;
+                }
+            }
+            return selected;
+        };
+    }
+
+    /**
+     * The less loaded of two random threads, which avoids reading every counter and
+     * spreads tasks started at the same time over more threads than {@link #leastLoaded()}.
+     */
+    static ThreadPlacementPolicy powerOfTwoChoices() {
+        return (threads, callerThread) -> {
+            int size = threads.size();
+            if (size == 1) {
+                return threads.get(0);
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+
+            ContanThread firstThread = threads.get(first);
+            ContanThread secondThread = threads.get(second);
+            return getLoad(secondThread) < getLoad(firstThread) ? secondThread : firstThread;
+        };
+    }
+
+    /**
+     * The thread that starts the task if it is an async thread, otherwise a thread fixed for the caller,
+     * so that the tasks started by one thread run in order on one thread.
+     */
+    static ThreadPlacementPolicy callerAffinity() {
+        return (threads, callerThread) -> {
+            if (callerThread == null) {
+                return threads.get(0);
+            }
+
+            if (threads.contains(callerThread)) {
+                return callerThread;
+            }
+            return threads.get(Math.floorMod(System.identityHashCode(callerThread), threads.size()));
+        };
+    }
+
+    static int getLoad(ContanThread thread) {
+        return thread.getQueuedTaskCount() + thread.getRunningTaskCount();
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.contan_lang.thread;
+
+import org.contan_lang.ContanEngine;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Logical thread that runs its tasks one at a time, in order, on a shared {@link ForkJoinPool}.
+ * <p>
+ * Each logical thread has its own queue, drained by one pool task at a time. After a batch the drain
+ * task submits a new drain task to the pool and returns, so the worker can take the drain tasks of the
+ * other logical threads, and a slow task only holds up the tasks of its own logical thread.
+ * <p>
+ * Any gain over {@link BasicContanThread} comes from creating more logical threads than the pool has
+ * workers. Tasks are then spread over more queues, and fewer of them wait behind a slow one, while
+ * the number of Java threads stays the size of the pool.
+ */
+public class WorkStealingContanThread implements ContanThread {
+
+    //Tasks run before the drain task gives the worker back to the pool
+    private static final int BATCH_SIZE = 64;
+
+    private final ContanEngine contanEngine;
+
+    private final ForkJoinPool pool;
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    //Size of the queue, which ConcurrentLinkedQueue can only count by walking it
+    private final AtomicInteger queuedTaskCount = new AtomicInteger();
+
+    private volatile boolean running = false;
+
+    //True while a drain task is submitted or running
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private volatile boolean shutdown = false;
+
+    public WorkStealingContanThread(ContanEngine contanEngine, ForkJoinPool pool) {
+        this.contanEngine = contanEngine;
+        this.pool = pool;
+    }
+
+    @Override
+    public ContanEngine getContanEngine() {return contanEngine;}
+
+    @Override
+    public <T> T runTaskImmediately(Callable<T> task) throws ExecutionException, InterruptedException {
+        FutureTask<T> future = new FutureTask<>(task);
+        execute(future);
+        return future.get();
+    }
+
+    @Override
+    public <T> void scheduleTask(Callable<T> task) {
+        execute(new FutureTask<>(task));
+    }
+
+    private void execute(Runnable task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Thread has been shut down.");
+        }
+
+        queuedTaskCount.incrementAndGet();
+        tasks.add(task);
+        if (scheduled.compareAndSet(false, true)) {
+            pool.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Runnable task = tasks.poll();
+            if (task == null) {
+                break;
+            }
+            queuedTaskCount.decrementAndGet();
+
+            running = true;
+            try {
+                task.run();
+            } finally {
+                running = false;
+            }
+        }
+
+        scheduled.set(false);
+
+        //Tasks added while draining, or left over after the batch
+        if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+            pool.execute(this::drain);
+        } else {
+            //Always, since shutdownWithAwait may set shutdown and start waiting after it was read here
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public int getQueuedTaskCount() {return queuedTaskCount.get();}
+
+    @Override
+    public int getRunningTaskCount() {return running ? 1 : 0;}
+
+    private boolean isTerminated() {return shutdown && !scheduled.get() && tasks.isEmpty();}
+
+    /**
+     * Stop accepting tasks and wait for the queued ones. The shared pool is left running.
+     */
+    @Override
+    public boolean shutdownWithAwait(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        shutdown = true;
+
+        long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+        synchronized (this) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+        return true;
+    }
+
+}
@@ -5,10 +5,21 @@ import org.contan_lang.evaluators.FunctionInvokable;
 
 public interface ContanObject<T> extends FunctionInvokable {
 
+    /**
+     * @return Engine that created this object, null for the values shared by all engines,
+     * such as void, booleans and small integers
+     */
     ContanEngine getContanEngine();
     
     T getBasedJavaObject();
     
+    /**
+     * Create the copy that is passed as an argument or assigned to a variable.
+     * Values that are never changed after they are created return themselves,
+     * so only mutable values are copied.
+     *
+     * @return Copy of this object, or this object if it is immutable
+     */
     ContanObject<T> createClone();
     
     long toLong();
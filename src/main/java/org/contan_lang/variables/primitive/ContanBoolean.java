@@ -8,23 +8,43 @@ import org.contan_lang.variables.ContanObject;
 
 public class ContanBoolean extends ContanPrimitiveObject<Boolean> {
     
-    public ContanBoolean(ContanEngine contanEngine, Boolean based) {
-        super(contanEngine, based);
+    //Shared by all engines, so getContanEngine() of them returns null like ContanVoidObject
+    public static final ContanBoolean TRUE = new ContanBoolean(null, true);
+    
+    public static final ContanBoolean FALSE = new ContanBoolean(null, false);
+    
+    public static ContanBoolean valueOf(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+    
+    
+    private final boolean value;
+    
+    private ContanBoolean(ContanEngine contanEngine, boolean value) {
+        super(contanEngine, null);
+        this.value = value;
+    }
+    
+    public boolean getValue() {return value;}
+    
+    @Override
+    public Boolean getBasedJavaObject() {
+        return value;
     }
     
     @Override
     public ContanObject<Boolean> createClone() {
-        return new ContanBoolean(contanEngine, based);
+        return this;
     }
     
     @Override
     public long toLong() {
-        return based ? 1L : 0L;
+        return value ? 1L : 0L;
     }
     
     @Override
     public double toDouble() {
-        return based ? 1.0 : 0.0;
+        return value ? 1.0 : 0.0;
     }
     
     @Override
@@ -39,7 +59,7 @@ public class ContanBoolean extends ContanPrimitiveObject<Boolean> {
     
     @Override
     public Object convertToJavaObject() {
-        return based;
+        return value;
     }
     
     @Override
@@ -50,6 +70,6 @@ public class ContanBoolean extends ContanPrimitiveObject<Boolean> {
     
     @Override
     public String toString() {
-        return based.toString();
+        return Boolean.toString(value);
     }
 }
@@ -9,28 +9,41 @@ import org.contan_lang.variables.NumberType;
 
 public class ContanF64 extends ContanPrimitiveObject<Double> {
     
-    public ContanF64(ContanEngine contanEngine, Double based) {
-        super(contanEngine, based);
+    private final double value;
+    
+    public ContanF64(ContanEngine contanEngine, double value) {
+        super(contanEngine, null);
+        this.value = value;
+    }
+    
+    public double getValue() {return value;}
+    
+    /**
+     * Box the value only when it is requested for Java.
+     */
+    @Override
+    public Double getBasedJavaObject() {
+        return value;
     }
     
     @Override
     public ContanObject<Double> createClone() {
-        return new ContanF64(contanEngine, based);
+        return this;
     }
     
     @Override
     public long toLong() {
-        return (long) ((double) based);
+        return (long) value;
     }
     
     @Override
     public double toDouble() {
-        return based;
+        return value;
     }
     
     @Override
     public boolean convertibleToLong() {
-        NumberType numberType = NumberType.getType(based);
+        NumberType numberType = NumberType.getType(value);
         return numberType == NumberType.INTEGER || numberType == NumberType.LONG;
     }
     
@@ -41,7 +54,7 @@ public class ContanF64 extends ContanPrimitiveObject<Double> {
     
     @Override
     public Object convertToJavaObject() {
-        return based;
+        return value;
     }
     
     @Override
@@ -52,6 +65,6 @@ public class ContanF64 extends ContanPrimitiveObject<Double> {
     
     @Override
     public String toString() {
-        return based.toString();
+        return Double.toString(value);
     }
 }
@@ -8,23 +8,60 @@ import org.contan_lang.variables.ContanObject;
 
 public class ContanI64 extends ContanPrimitiveObject<Long> {
     
-    public ContanI64(ContanEngine contanEngine, Long based) {
-        super(contanEngine, based);
+    private static final int CACHE_LOW = -128;
+    
+    private static final int CACHE_HIGH = 1023;
+    
+    //Shared by all engines, so getContanEngine() of the cached values returns null like ContanVoidObject
+    private static final ContanI64[] CACHE = new ContanI64[CACHE_HIGH - CACHE_LOW + 1];
+    
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new ContanI64(null, CACHE_LOW + i);
+        }
+    }
+    
+    /**
+     * @return Cached instance for small values, otherwise a new instance
+     */
+    public static ContanI64 valueOf(ContanEngine contanEngine, long value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+            return CACHE[(int) value - CACHE_LOW];
+        }
+        return new ContanI64(contanEngine, value);
+    }
+    
+    
+    private final long value;
+    
+    public ContanI64(ContanEngine contanEngine, long value) {
+        super(contanEngine, null);
+        this.value = value;
+    }
+    
+    public long getValue() {return value;}
+    
+    /**
+     * Box the value only when it is requested for Java.
+     */
+    @Override
+    public Long getBasedJavaObject() {
+        return value;
     }
     
     @Override
     public ContanObject<Long> createClone() {
-        return new ContanI64(contanEngine, based);
+        return this;
     }
     
     @Override
     public long toLong() {
-        return based;
+        return value;
     }
     
     @Override
     public double toDouble() {
-        return (double) ((long) based);
+        return (double) value;
     }
     
     @Override
@@ -50,6 +87,6 @@ public class ContanI64 extends ContanPrimitiveObject<Long> {
     
     @Override
     public String toString() {
-        return based.toString();
+        return Long.toString(value);
     }
 }
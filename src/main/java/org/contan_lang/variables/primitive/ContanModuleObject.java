@@ -19,7 +19,7 @@ public class ContanModuleObject extends ContanPrimitiveObject<ContanModule> {
 
     @Override
     public ContanObject<ContanModule> createClone() {
-        return null;
+        return this;
     }
 
     @Override
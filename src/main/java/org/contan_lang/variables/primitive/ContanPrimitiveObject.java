@@ -4,11 +4,44 @@ import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.Environment;
 import org.contan_lang.environment.expection.ContanRuntimeError;
 import org.contan_lang.evaluators.Evaluator;
+import org.contan_lang.runtime.JavaMethodCallSite;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.thread.ContanThread;
 import org.contan_lang.variables.ContanObject;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
 
 public abstract class ContanPrimitiveObject<T> implements ContanObject<T>, Evaluator {
+    
+    //Functions without arguments that all primitive objects have, the results are created for the engine of the calling thread
+    private static final Map<String, PrimitiveFunction> PRIMITIVE_FUNCTIONS = new HashMap<>();
+    
+    static {
+        PRIMITIVE_FUNCTIONS.put("toString", (object, contanEngine, functionName) -> new ContanString(contanEngine, object.toString()));
+        
+        PRIMITIVE_FUNCTIONS.put("toLong", (object, contanEngine, functionName) -> {
+            if (!object.convertibleToLong()) {
+                ContanRuntimeError.E0046.throwError("", null, functionName);
+            }
+            
+            return ContanI64.valueOf(contanEngine, object.toLong());
+        });
+        
+        PRIMITIVE_FUNCTIONS.put("toDouble", (object, contanEngine, functionName) -> {
+            if (!object.convertibleToDouble()) {
+                ContanRuntimeError.E0047.throwError("", null, functionName);
+            }
+            
+            return new ContanF64(contanEngine, object.toDouble());
+        });
+        
+        PRIMITIVE_FUNCTIONS.put("convertibleToLong", (object, contanEngine, functionName) -> ContanBoolean.valueOf(object.convertibleToLong()));
+        
+        PRIMITIVE_FUNCTIONS.put("convertibleToDouble", (object, contanEngine, functionName) -> ContanBoolean.valueOf(object.convertibleToDouble()));
+    }
+    
 
     protected final ContanEngine contanEngine;
     
@@ -32,43 +65,42 @@ public abstract class ContanPrimitiveObject<T> implements ContanObject<T>, Evalu
     
     @Override
     public ContanObject<?> invokeFunction(ContanThread contanThread, Token functionName, ContanObject<?>... variables) {
+        return invokeFunction(contanThread, functionName, null, variables);
+    }
+    
+    /**
+     * Invoke the function with the inline cache of the call site.
+     *
+     * @param javaMethodCallSite Cache of the call site for Java methods, null if the call site has none
+     */
+    public ContanObject<?> invokeFunction(ContanThread contanThread, Token functionName, @Nullable JavaMethodCallSite javaMethodCallSite, ContanObject<?>... variables) {
         if (variables.length == 0) {
-            switch (functionName.getText()) {
-                
-                case "toString": {
-                    return new ContanString(contanEngine, this.toString());
-                }
-                
-                case "toLong": {
-                    if (!this.convertibleToLong()) {
-                        ContanRuntimeError.E0046.throwError("", null, functionName);
-                    }
-                    
-                    return new ContanI64(contanEngine, this.toLong());
-                }
-                
-                case "toDouble": {
-                    if (!this.convertibleToDouble()) {
-                        ContanRuntimeError.E0047.throwError("", null, functionName);
-                    }
-                    
-                    return new ContanF64(contanEngine, this.toDouble());
-                }
-                
-                case "convertibleToLong": {
-                    return new ContanBoolean(contanEngine, this.convertibleToLong());
-                }
-                
-                case "convertibleToDouble": {
-                    return new ContanBoolean(contanEngine, this.convertibleToDouble());
-                }
-                
+            PrimitiveFunction primitiveFunction = PRIMITIVE_FUNCTIONS.get(functionName.getText());
+            if (primitiveFunction != null) {
+                //Values shared by all engines have no engine, so the one of the thread is used
+                return primitiveFunction.invoke(this, contanThread.getContanEngine(), functionName);
             }
         }
         
-        return invokeFunctionChild(contanThread, functionName, variables);
+        return invokeFunctionChild(contanThread, functionName, javaMethodCallSite, variables);
+    }
+    
+    /**
+     * @return True if the function is invoked by {@link #invokeFunction(ContanThread, Token, JavaMethodCallSite, ContanObject[])} for all primitive objects
+     */
+    public static boolean isPrimitiveFunction(String functionName, int variableLength) {
+        return variableLength == 0 && PRIMITIVE_FUNCTIONS.containsKey(functionName);
     }
     
     public abstract ContanObject<?> invokeFunctionChild(ContanThread contanThread, Token functionName, ContanObject<?>... variables);
     
+    public ContanObject<?> invokeFunctionChild(ContanThread contanThread, Token functionName, @Nullable JavaMethodCallSite javaMethodCallSite, ContanObject<?>... variables) {
+        return invokeFunctionChild(contanThread, functionName, variables);
+    }
+    
+    
+    private interface PrimitiveFunction {
+        ContanObject<?> invoke(ContanPrimitiveObject<?> object, ContanEngine contanEngine, Token functionName);
+    }
+    
 }
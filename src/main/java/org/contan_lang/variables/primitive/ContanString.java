@@ -15,7 +15,7 @@ public class ContanString extends ContanPrimitiveObject<String> {
     
     @Override
     public ContanObject<String> createClone() {
-        return new ContanString(contanEngine, based);
+        return this;
     }
     
     @Override
@@ -2,14 +2,15 @@ package org.contan_lang.variables.primitive;
 
 import org.contan_lang.ContanEngine;
 import org.contan_lang.environment.expection.ContanRuntimeError;
+import org.contan_lang.runtime.JavaMethodCallSite;
+import org.contan_lang.runtime.JavaMethodTable;
+import org.contan_lang.runtime.JavaMethodTable.MethodMatch;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.thread.ContanThread;
 import org.contan_lang.variables.ContanObject;
 import org.contan_lang.variables.NumberType;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.util.Arrays;
 
 public class JavaClassInstance extends ContanPrimitiveObject<Object> {
@@ -23,9 +24,14 @@ public class JavaClassInstance extends ContanPrimitiveObject<Object> {
         return invokeJavaMethod(contanEngine, based.getClass(), based, functionName, variables);
     }
     
+    @Override
+    public ContanObject<?> invokeFunctionChild(ContanThread contanThread, Token functionName, @Nullable JavaMethodCallSite javaMethodCallSite, ContanObject<?>... variables) {
+        return invokeJavaMethod(contanEngine, based.getClass(), based, functionName, javaMethodCallSite, variables);
+    }
+    
     @Override
     public ContanObject<Object> createClone() {
-        return new JavaClassInstance(contanEngine, based);
+        return this;
     }
     
     @Override
@@ -129,68 +135,17 @@ public class JavaClassInstance extends ContanPrimitiveObject<Object> {
     
     
     public static ContanObject<?> invokeJavaMethod(ContanEngine contanEngine, Class<?> clazz, @Nullable Object based, Token functionName, ContanObject<?>... variables) {
+        return invokeJavaMethod(contanEngine, clazz, based, functionName, null, variables);
+    }
+    
+    public static ContanObject<?> invokeJavaMethod(ContanEngine contanEngine, Class<?> clazz, @Nullable Object based, Token functionName,
+                                                   @Nullable JavaMethodCallSite javaMethodCallSite, ContanObject<?>... variables) {
         try {
-            methodLoop : for (Method method : clazz.getMethods()) {
-                if (method.getParameterCount() != variables.length) continue;
-                if (!method.getName().equals(functionName.getText())) continue;
-                
-                Object[] convertedArgs = new Object[variables.length];
-                Parameter[] parameters = method.getParameters();
-                for (int i = 0; i < variables.length; i++) {
-                    Parameter parameter = parameters[i];
-                    ContanObject<?> variable = variables[i];
-                    Class<?> parameterType = parameter.getType();
-
-                    if (variable.convertibleToDouble()) {
-                        double original = variable.toDouble();
-                        NumberType numberType = NumberType.getType(original);
-
-                        if (parameterType == int.class || parameterType == Integer.class) {
-                            if (numberType != NumberType.INTEGER) {
-                                continue methodLoop;
-                            }
-
-                            convertedArgs[i] = (int) original;
-                            continue;
-                        } else if (parameterType == long.class || parameterType == Long.class) {
-                            if (numberType != NumberType.LONG && numberType != NumberType.INTEGER) {
-                                continue methodLoop;
-                            }
-
-                            convertedArgs[i] = (long) original;
-                            continue;
-                        } else if (parameterType == float.class || parameterType == Float.class) {
-                            if (numberType != NumberType.FLOAT && numberType != NumberType.INTEGER) {
-                                continue methodLoop;
-                            }
-
-                            convertedArgs[i] = (float) original;
-                            continue;
-                        } else if (parameterType == double.class || parameterType == Double.class) {
-                            convertedArgs[i] = original;
-                            continue;
-                        }
-                    }
-
-                    if (variable == ContanVoidObject.INSTANCE) {
-                        convertedArgs[i] = null;
-                    } else {
-                        Object converted = variable.convertToJavaObject();
-                        
-                        if (converted instanceof Boolean) {
-                            if (parameterType != boolean.class && parameterType != Boolean.class) {
-                                continue methodLoop;
-                            }
-                        } else if (!parameterType.isInstance(converted)) {
-                            continue methodLoop;
-                        }
-    
-                        convertedArgs[i] = converted;
-                    }
-                }
-                
-                method.setAccessible(true);
-                Object returned = method.invoke(based, convertedArgs);
+            MethodMatch match = javaMethodCallSite == null ? JavaMethodTable.get(clazz).find(functionName.getText(), variables)
+                    : javaMethodCallSite.find(clazz, variables);
+            
+            if (match != null) {
+                Object returned = match.invoke(based, variables);
                 if (returned == null) {
                     return ContanVoidObject.INSTANCE;
                 } else {
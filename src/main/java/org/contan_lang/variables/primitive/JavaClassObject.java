@@ -1,9 +1,11 @@
 package org.contan_lang.variables.primitive;
 
 import org.contan_lang.ContanEngine;
+import org.contan_lang.runtime.JavaMethodCallSite;
 import org.contan_lang.syntax.tokens.Token;
 import org.contan_lang.thread.ContanThread;
 import org.contan_lang.variables.ContanObject;
+import org.jetbrains.annotations.Nullable;
 
 public class JavaClassObject extends ContanPrimitiveObject<Class<?>> {
 
@@ -16,6 +18,11 @@ public class JavaClassObject extends ContanPrimitiveObject<Class<?>> {
         //Invoke java class static method
         return JavaClassInstance.invokeJavaMethod(contanEngine, based, null, functionName, variables);
     }
+    
+    @Override
+    public ContanObject<?> invokeFunctionChild(ContanThread contanThread, Token functionName, @Nullable JavaMethodCallSite javaMethodCallSite, ContanObject<?>... variables) {
+        return JavaClassInstance.invokeJavaMethod(contanEngine, based, null, functionName, javaMethodCallSite, variables);
+    }
 
     @Override
     public ContanObject<Class<?>> createClone() {
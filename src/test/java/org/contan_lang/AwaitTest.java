@@ -0,0 +1,24 @@
+package org.contan_lang;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs the scripts that await futures, both pending ones and ones that are already done.
+ */
+public class AwaitTest {
+    
+    @Test
+    public void pendingFutures() throws Exception {
+        assertEquals(Arrays.asList("35", "101"), ScriptRunner.run("async", contanEngine -> {}));
+    }
+    
+    @Test
+    public void doneFutures() throws Exception {
+        assertEquals(Arrays.asList("10", "30", "13", "11", "done"), ScriptRunner.run("await", contanEngine -> {}));
+    }
+    
+}
@@ -0,0 +1,113 @@
+package org.contan_lang;
+
+import org.contan_lang.thread.ContanThread;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs the scripts under src/test/resources/scripts and collects what they print.
+ */
+public class ScriptRunner {
+    
+    public static final String[] SCRIPTS = {"arithmetic", "classes", "functions", "errors", "lexer", "async", "await"};
+    
+    public static String read(String scriptName) {
+        try (InputStream inputStream = ScriptRunner.class.getResourceAsStream("/scripts/" + scriptName + ".cntn")) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Script not found : " + scriptName);
+            }
+            
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                bytes.write(buffer, 0, length);
+            }
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Run the script on a new engine and wait until its threads are idle.
+     *
+     * @param scriptName Name of the script without the extension
+     * @param configurator Configures the engine before the script is compiled
+     * @return Printed lines, followed by the error of the module if it failed
+     */
+    public static List<String> run(String scriptName, Consumer<ContanEngine> configurator) throws Exception {
+        return run(scriptName, new ContanEngine(), configurator);
+    }
+    
+    public static synchronized List<String> run(String scriptName, ContanEngine contanEngine, Consumer<ContanEngine> configurator) throws Exception {
+        configurator.accept(contanEngine);
+        
+        PrintStream systemOut = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output, true, "UTF-8"));
+        
+        String error = null;
+        try {
+            ContanModule contanModule = contanEngine.compile("test/" + scriptName + ".cntn", read(scriptName));
+            try {
+                contanModule.initialize(contanEngine.getMainThread());
+            } catch (Exception e) {
+                Throwable cause = e;
+                while (cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                error = "ERROR " + cause.getClass().getSimpleName();
+            }
+            
+            awaitIdle(contanEngine);
+        } finally {
+            contanEngine.getMainThread().shutdownWithAwait(1, TimeUnit.SECONDS);
+            for (ContanThread contanThread : contanEngine.getAsyncThreads()) {
+                contanThread.shutdownWithAwait(1, TimeUnit.SECONDS);
+            }
+            System.setOut(systemOut);
+        }
+        
+        List<String> lines = new ArrayList<>();
+        for (String line : new String(output.toByteArray(), StandardCharsets.UTF_8).split("\\R")) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        if (error != null) {
+            lines.add(error);
+        }
+        return lines;
+    }
+    
+    private static void awaitIdle(ContanEngine contanEngine) throws InterruptedException {
+        List<ContanThread> threads = new ArrayList<>(contanEngine.getAsyncThreads());
+        threads.add(contanEngine.getMainThread());
+        
+        //Idle for a while, since a task can schedule the next one right before it ends
+        long deadline = System.currentTimeMillis() + 10000;
+        int idleChecks = 0;
+        while (idleChecks < 10 && System.currentTimeMillis() < deadline) {
+            boolean idle = true;
+            for (ContanThread contanThread : threads) {
+                if (contanThread.getQueuedTaskCount() + contanThread.getRunningTaskCount() != 0) {
+                    idle = false;
+                    break;
+                }
+            }
+            
+            idleChecks = idle ? idleChecks + 1 : 0;
+            Thread.sleep(10);
+        }
+    }
+    
+}
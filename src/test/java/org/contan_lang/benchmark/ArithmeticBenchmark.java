@@ -0,0 +1,77 @@
+package org.contan_lang.benchmark;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.ContanModule;
+import org.contan_lang.thread.ContanThread;
+
+/**
+ * Runs loops of integer and floating point arithmetic and reports the time and the bytes allocated per iteration.
+ * The empty loop is measured too, and subtracted from the numbers per iteration.
+ * The loops run on the interpreter, then compiled to JVM classes on their first call.
+ */
+public class ArithmeticBenchmark {
+    
+    private static final int ITERATIONS = 100000;
+    
+    private static final String SOURCE =
+            "function integers() {\n" +
+            "    data s = 0\n" +
+            "    data i = 0\n" +
+            "    repeat (" + ITERATIONS + ") {\n" +
+            "        s = s + i * 3 - i\n" +
+            "        i = i + 1\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n" +
+            "function smallIntegers() {\n" +
+            "    data s = 0\n" +
+            "    repeat (" + ITERATIONS + ") {\n" +
+            "        s = s * 7 % 1000 + 1\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n" +
+            "function doubles() {\n" +
+            "    data s = 0.5\n" +
+            "    data x = 1.5\n" +
+            "    repeat (" + ITERATIONS + ") {\n" +
+            "        s = s * 0.5 + x\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n" +
+            "function empty() {\n" +
+            "    data s = 0\n" +
+            "    repeat (" + ITERATIONS + ") {\n" +
+            "        s = 1\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n";
+    
+    public static void main(String[] args) throws Exception {
+        System.out.println("interpreted:");
+        measure(ContanEngine.DEFAULT_COMPILE_THRESHOLD);
+        System.out.println("compiled:");
+        measure(1);
+        
+        System.exit(0);
+    }
+    
+    private static void measure(int compileThreshold) throws Exception {
+        ContanEngine contanEngine = new ContanEngine();
+        contanEngine.setCompileThreshold(compileThreshold);
+        ContanModule contanModule = contanEngine.compile("bench/Arithmetic.cntn", SOURCE);
+        ContanThread mainThread = contanEngine.getMainThread();
+        contanModule.initialize(mainThread);
+        
+        double emptyTime = Benchmark.measure(10, 21, () -> contanModule.invokeFunction(mainThread, "empty"));
+        long emptyBytes = Benchmark.allocatedBytes(() -> contanModule.invokeFunction(mainThread, "empty"));
+        
+        System.out.printf("%d iterations, empty loop: %.2f ms%n", ITERATIONS, emptyTime);
+        for (String functionName : new String[]{"integers", "smallIntegers", "doubles"}) {
+            double time = Benchmark.measure(10, 21, () -> contanModule.invokeFunction(mainThread, functionName));
+            long bytes = Benchmark.allocatedBytes(() -> contanModule.invokeFunction(mainThread, functionName));
+            System.out.printf("%s: %.2f ms, per iteration: %.0f ns, %d bytes%n", functionName, time,
+                    (time - emptyTime) * 1000000 / ITERATIONS, (bytes - emptyBytes) / ITERATIONS);
+        }
+    }
+    
+}
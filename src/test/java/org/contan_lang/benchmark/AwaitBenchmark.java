@@ -0,0 +1,103 @@
+package org.contan_lang.benchmark;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.ContanModule;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Awaits futures in a loop and through a chain of nested calls, and reports the time per await.
+ * A resumed function is evaluated again from the start, skipping the evaluators that recorded a status,
+ * so the time per await shows how much of the function each resume replays.
+ * A run that is never resumed is reported as not finished, so the benchmark can also be run on the
+ * replay model before the one-shot statuses, where an await inside repeat never resumes.
+ */
+public class AwaitBenchmark {
+    
+    private static final int RUN_TIMEOUT_SECONDS = 10;
+    
+    public static void main(String[] args) throws Exception {
+        ContanEngine contanEngine = new ContanEngine();
+        
+        System.out.println("awaits in a loop, ms, us per await");
+        for (int count = 100; count <= 3200; count *= 2) {
+            ContanModule contanModule = contanEngine.compile("bench/Loop" + count + ".cntn", awaitInLoop(count));
+            contanModule.initialize(contanEngine.getMainThread());
+            
+            try {
+                double time = Benchmark.measure(5, 11, () -> run(contanModule));
+                System.out.printf("%d, %.2f, %.1f%n", count, time, time * 1000 / count);
+            } catch (TimeoutException e) {
+                System.out.printf("%d, did not finish%n", count);
+            }
+        }
+        
+        System.out.println("await depth, ms, us per level");
+        for (int depth = 25; depth <= 800; depth *= 2) {
+            ContanModule contanModule = contanEngine.compile("bench/Deep" + depth + ".cntn", deepAwait(depth));
+            contanModule.initialize(contanEngine.getMainThread());
+            
+            try {
+                double time = Benchmark.measure(5, 11, () -> run(contanModule));
+                System.out.printf("%d, %.2f, %.1f%n", depth, time, time * 1000 / depth);
+            } catch (TimeoutException e) {
+                System.out.printf("%d, did not finish%n", depth);
+            }
+        }
+        
+        System.exit(0);
+    }
+    
+    private static void run(ContanModule contanModule) throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        contanModule.invokeFunction(contanModule.getModuleEnvironment().getContanThread(), "run", latch);
+        if (!latch.await(RUN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new TimeoutException("The function was not resumed.");
+        }
+    }
+    
+    private static String awaitInLoop(int count) {
+        return "function one() {\n" +
+                "    return async {\n" +
+                "        return 1\n" +
+                "    }\n" +
+                "}\n" +
+                "function loop() {\n" +
+                "    data s = 0\n" +
+                "    repeat (" + count + ") {\n" +
+                "        s = s + one().await()\n" +
+                "    }\n" +
+                "    return s\n" +
+                "}\n" +
+                "function run(latch) {\n" +
+                "    async {\n" +
+                "        loop().await()\n" +
+                "        latch.countDown()\n" +
+                "    }\n" +
+                "}\n";
+    }
+    
+    private static String deepAwait(int depth) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("function level0() {\n")
+                .append("    return async {\n")
+                .append("        return 0\n")
+                .append("    }\n")
+                .append("}\n");
+        for (int i = 1; i <= depth; i++) {
+            builder.append("function level").append(i).append("() {\n")
+                    .append("    return level").append(i - 1).append("().await() + 1\n")
+                    .append("}\n");
+        }
+        builder.append("function run(latch) {\n")
+                .append("    async {\n")
+                .append("        level").append(depth).append("().await()\n")
+                .append("        latch.countDown()\n")
+                .append("    }\n")
+                .append("}\n");
+        return builder.toString();
+    }
+    
+}
@@ -0,0 +1,52 @@
+package org.contan_lang.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Timing helper for the benchmarks in this package, which are run by hand through their main methods.
+ * <p>
+ * Each measurement is warmed up first and then repeated, and the median is reported.
+ */
+public class Benchmark {
+    
+    public interface Task {
+        void run() throws Exception;
+    }
+    
+    /**
+     * @return Median time of one run in milliseconds
+     */
+    public static double measure(int warmups, int runs, Task task) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            task.run();
+        }
+        
+        double[] times = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run();
+            times[i] = (System.nanoTime() - start) / 1000000.0;
+        }
+        
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+    
+    /**
+     * @return Bytes allocated by the current thread while the task runs, -1 if the JVM can not measure it
+     */
+    public static long allocatedBytes(Task task) throws Exception {
+        java.lang.management.ThreadMXBean threadMXBean = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            task.run();
+            return -1;
+        }
+        
+        com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        long threadId = Thread.currentThread().getId();
+        long start = sunThreadMXBean.getThreadAllocatedBytes(threadId);
+        task.run();
+        return sunThreadMXBean.getThreadAllocatedBytes(threadId) - start;
+    }
+    
+}
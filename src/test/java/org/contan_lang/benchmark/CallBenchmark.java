@@ -0,0 +1,60 @@
+package org.contan_lang.benchmark;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.ContanModule;
+import org.contan_lang.thread.ContanThread;
+
+/**
+ * Calls a small function in a loop and reports the time and the bytes allocated per call.
+ * The same loop without the call is measured too, and subtracted from the numbers per call.
+ * The functions run on the interpreter, then compiled to JVM classes on their first call.
+ */
+public class CallBenchmark {
+    
+    private static final int CALLS = 100000;
+    
+    private static final String SOURCE =
+            "function inc(x) {\n" +
+            "    return x + 1\n" +
+            "}\n" +
+            "function calls() {\n" +
+            "    data s = 0\n" +
+            "    repeat (" + CALLS + ") {\n" +
+            "        s = inc(s)\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n" +
+            "function inline() {\n" +
+            "    data s = 0\n" +
+            "    repeat (" + CALLS + ") {\n" +
+            "        s = s + 1\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n";
+    
+    public static void main(String[] args) throws Exception {
+        System.out.println("interpreted:");
+        measure(ContanEngine.DEFAULT_COMPILE_THRESHOLD);
+        System.out.println("compiled:");
+        measure(1);
+        
+        System.exit(0);
+    }
+    
+    private static void measure(int compileThreshold) throws Exception {
+        ContanEngine contanEngine = new ContanEngine();
+        contanEngine.setCompileThreshold(compileThreshold);
+        ContanModule contanModule = contanEngine.compile("bench/Call.cntn", SOURCE);
+        ContanThread mainThread = contanEngine.getMainThread();
+        contanModule.initialize(mainThread);
+        
+        double callTime = Benchmark.measure(10, 21, () -> contanModule.invokeFunction(mainThread, "calls"));
+        double inlineTime = Benchmark.measure(10, 21, () -> contanModule.invokeFunction(mainThread, "inline"));
+        long callBytes = Benchmark.allocatedBytes(() -> contanModule.invokeFunction(mainThread, "calls"));
+        long inlineBytes = Benchmark.allocatedBytes(() -> contanModule.invokeFunction(mainThread, "inline"));
+        
+        System.out.printf("%d calls: %.2f ms, without the call: %.2f ms%n", CALLS, callTime, inlineTime);
+        System.out.printf("per call: %.0f ns, %d bytes%n", (callTime - inlineTime) * 1000000 / CALLS, (callBytes - inlineBytes) / CALLS);
+    }
+    
+}
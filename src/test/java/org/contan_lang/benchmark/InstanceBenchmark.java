@@ -0,0 +1,83 @@
+package org.contan_lang.benchmark;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.ContanModule;
+import org.contan_lang.thread.ContanThread;
+
+/**
+ * Creates instances of a class with two fields and reports the bytes allocated per instance,
+ * and the heap still used per instance while they are all kept reachable.
+ */
+public class InstanceBenchmark {
+    
+    private static final int INSTANCES = 100000;
+    
+    //Keeps the instances reachable while the heap is measured
+    private static Object[] points;
+    
+    private static final String SOURCE =
+            "class Point(x, y) {\n" +
+            "    data px = x\n" +
+            "    data py = y\n" +
+            "    function sum() {\n" +
+            "        return px + py\n" +
+            "    }\n" +
+            "}\n" +
+            "function point(x) {\n" +
+            "    return new Point(x, 1)\n" +
+            "}\n" +
+            "function points() {\n" +
+            "    data s = 0\n" +
+            "    data p = 0\n" +
+            "    repeat (" + INSTANCES + ") {\n" +
+            "        p = new Point(s, 1)\n" +
+            "        s = s + 1\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n" +
+            "function inline() {\n" +
+            "    data s = 0\n" +
+            "    data p = 0\n" +
+            "    repeat (" + INSTANCES + ") {\n" +
+            "        p = s\n" +
+            "        s = s + 1\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n";
+    
+    public static void main(String[] args) throws Exception {
+        ContanEngine contanEngine = new ContanEngine();
+        ContanModule contanModule = contanEngine.compile("bench/Instance.cntn", SOURCE);
+        ContanThread mainThread = contanEngine.getMainThread();
+        contanModule.initialize(mainThread);
+        
+        double instanceTime = Benchmark.measure(10, 21, () -> contanModule.invokeFunction(mainThread, "points"));
+        double inlineTime = Benchmark.measure(10, 21, () -> contanModule.invokeFunction(mainThread, "inline"));
+        long instanceBytes = Benchmark.allocatedBytes(() -> contanModule.invokeFunction(mainThread, "points"));
+        long inlineBytes = Benchmark.allocatedBytes(() -> contanModule.invokeFunction(mainThread, "inline"));
+        
+        points = new Object[INSTANCES];
+        long usedBefore = usedHeap();
+        for (int i = 0; i < INSTANCES; i++) {
+            points[i] = contanModule.invokeFunction(mainThread, "point", i);
+        }
+        long usedAfter = usedHeap();
+        
+        System.out.printf("%d instances: %.2f ms, without the instance: %.2f ms%n", INSTANCES, instanceTime, inlineTime);
+        System.out.printf("per instance: %.0f ns, %d bytes allocated, %d bytes kept%n",
+                (instanceTime - inlineTime) * 1000000 / INSTANCES, (instanceBytes - inlineBytes) / INSTANCES,
+                (usedAfter - usedBefore) / INSTANCES);
+        
+        System.exit(0);
+    }
+    
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+}
@@ -0,0 +1,67 @@
+package org.contan_lang.benchmark;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.ContanModule;
+import org.contan_lang.thread.ContanThread;
+
+/**
+ * Calls Java methods and constructors in a loop and reports the time and the bytes allocated per call.
+ * The arguments change between int and double values, which select different overloads at the same site.
+ * The same loop without the call is measured too, and subtracted from the numbers per call.
+ */
+public class JavaCallBenchmark {
+    
+    private static final int CALLS = 100000;
+    
+    private static final String SOURCE =
+            "import Math = importJava(\"java.lang.Math\")\n" +
+            "import StringBuilder = importJava(\"java.lang.StringBuilder\")\n" +
+            "function methods() {\n" +
+            "    data s = 0\n" +
+            "    data x = 0\n" +
+            "    repeat (" + CALLS + ") {\n" +
+            "        x = s / 2\n" +
+            "        s = s + Math.abs(x)\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n" +
+            "function constructors() {\n" +
+            "    data s = 0\n" +
+            "    data x = 0\n" +
+            "    repeat (" + CALLS + ") {\n" +
+            "        x = new StringBuilder(16)\n" +
+            "        s = s + 1\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n" +
+            "function inline() {\n" +
+            "    data s = 0\n" +
+            "    data x = 0\n" +
+            "    repeat (" + CALLS + ") {\n" +
+            "        x = s / 2\n" +
+            "        s = s + x\n" +
+            "    }\n" +
+            "    return s\n" +
+            "}\n";
+    
+    public static void main(String[] args) throws Exception {
+        ContanEngine contanEngine = new ContanEngine();
+        ContanModule contanModule = contanEngine.compile("bench/JavaCall.cntn", SOURCE);
+        ContanThread mainThread = contanEngine.getMainThread();
+        contanModule.initialize(mainThread);
+        
+        double methodTime = Benchmark.measure(10, 21, () -> contanModule.invokeFunction(mainThread, "methods"));
+        double constructorTime = Benchmark.measure(10, 21, () -> contanModule.invokeFunction(mainThread, "constructors"));
+        double inlineTime = Benchmark.measure(10, 21, () -> contanModule.invokeFunction(mainThread, "inline"));
+        long methodBytes = Benchmark.allocatedBytes(() -> contanModule.invokeFunction(mainThread, "methods"));
+        long constructorBytes = Benchmark.allocatedBytes(() -> contanModule.invokeFunction(mainThread, "constructors"));
+        long inlineBytes = Benchmark.allocatedBytes(() -> contanModule.invokeFunction(mainThread, "inline"));
+        
+        System.out.printf("%d calls: methods %.2f ms, constructors %.2f ms, without the call: %.2f ms%n", CALLS, methodTime, constructorTime, inlineTime);
+        System.out.printf("per method call: %.0f ns, %d bytes%n", (methodTime - inlineTime) * 1000000 / CALLS, (methodBytes - inlineBytes) / CALLS);
+        System.out.printf("per constructor call: %.0f ns, %d bytes%n", (constructorTime - inlineTime) * 1000000 / CALLS, (constructorBytes - inlineBytes) / CALLS);
+        
+        System.exit(0);
+    }
+    
+}
@@ -0,0 +1,64 @@
+package org.contan_lang.benchmark;
+
+import org.contan_lang.ContanEngine;
+
+/**
+ * Lexes and parses scripts of growing nesting depth.
+ * With the bracket index the time per nesting level stays flat for nested blocks and parentheses.
+ * Nested blocks that use a variable of the outermost block also resolve it through every enclosing scope.
+ */
+public class ParseBenchmark {
+    
+    public static void main(String[] args) throws Exception {
+        ContanEngine contanEngine = new ContanEngine();
+        int[] count = {0};
+        
+        System.out.println("depth, blocks ms, parentheses ms, blocks using a variable ms (per level in us)");
+        
+        for (int depth = 25; depth <= 800; depth *= 2) {
+            String blocks = nestedBlocks(depth, false);
+            String parentheses = nestedParentheses(depth);
+            String blocksUsingVariable = nestedBlocks(depth, true);
+            
+            double blocksTime = Benchmark.measure(20, 21, () -> contanEngine.compile("bench/Blocks" + count[0]++ + ".cntn", blocks));
+            double parenthesesTime = Benchmark.measure(20, 21, () -> contanEngine.compile("bench/Parentheses" + count[0]++ + ".cntn", parentheses));
+            double variableTime = Benchmark.measure(20, 21, () -> contanEngine.compile("bench/Variable" + count[0]++ + ".cntn", blocksUsingVariable));
+            
+            System.out.printf("%d, %.2f (%.1f), %.2f (%.1f), %.2f (%.1f)%n", depth,
+                    blocksTime, blocksTime * 1000 / depth,
+                    parenthesesTime, parenthesesTime * 1000 / depth,
+                    variableTime, variableTime * 1000 / depth);
+        }
+        
+        System.exit(0);
+    }
+    
+    private static String nestedBlocks(int depth, boolean useVariable) {
+        StringBuilder builder = new StringBuilder("data x = 0\n");
+        for (int i = 0; i < depth; i++) {
+            if (useVariable) {
+                builder.append("if (x == ").append(i).append(") {\n");
+                builder.append("x = x + 1\n");
+            } else {
+                builder.append("if (true) {\n");
+            }
+        }
+        for (int i = 0; i < depth; i++) {
+            builder.append("}\n");
+        }
+        return builder.toString();
+    }
+    
+    private static String nestedParentheses(int depth) {
+        StringBuilder builder = new StringBuilder("data x = ");
+        for (int i = 0; i < depth; i++) {
+            builder.append("(1 + ");
+        }
+        builder.append("1");
+        for (int i = 0; i < depth; i++) {
+            builder.append(")");
+        }
+        return builder.append("\n").toString();
+    }
+    
+}
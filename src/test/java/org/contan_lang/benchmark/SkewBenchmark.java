@@ -0,0 +1,73 @@
+package org.contan_lang.benchmark;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.ContanModule;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Starts one slow async block and many short ones, and reports the time until all short blocks are done.
+ * On the default engine, short blocks placed behind the slow one on the same thread wait for it.
+ * Logical threads on a work-stealing pool let the short blocks of the other logical threads run on the free workers.
+ */
+public class SkewBenchmark {
+    
+    private static final int FAST_BLOCKS = 20;
+    
+    private static final String SOURCE =
+            "import Thread = importJava(\"java.lang.Thread\")\n" +
+            "function run(fastLatch, slowLatch) {\n" +
+            "    async {\n" +
+            "        Thread.sleep(300)\n" +
+            "        slowLatch.countDown()\n" +
+            "    }\n" +
+            "    repeat (" + FAST_BLOCKS + ") {\n" +
+            "        async {\n" +
+            "            Thread.sleep(5)\n" +
+            "            fastLatch.countDown()\n" +
+            "        }\n" +
+            "    }\n" +
+            "}\n";
+    
+    public static void main(String[] args) throws Exception {
+        System.out.printf("default engine, 2 async threads: %.1f ms%n", measure(new ContanEngine()));
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int asyncThreadCount : new int[]{4, 16}) {
+            System.out.printf("4 pool workers, %d async threads: %.1f ms%n", asyncThreadCount, measure(new ContanEngine(pool, asyncThreadCount)));
+        }
+        
+        System.exit(0);
+    }
+    
+    /**
+     * @return Median time until the short blocks are done
+     */
+    private static double measure(ContanEngine contanEngine) throws Exception {
+        ContanModule contanModule = contanEngine.compile("bench/Skew.cntn", SOURCE);
+        contanModule.initialize(contanEngine.getMainThread());
+        
+        double[] times = new double[11];
+        for (int i = -3; i < times.length; i++) {
+            CountDownLatch fastLatch = new CountDownLatch(FAST_BLOCKS);
+            CountDownLatch slowLatch = new CountDownLatch(1);
+            
+            long start = System.nanoTime();
+            contanModule.invokeFunction(contanEngine.getMainThread(), "run", fastLatch, slowLatch);
+            fastLatch.await();
+            long end = System.nanoTime();
+            
+            //The slow block would hold up the next run
+            slowLatch.await();
+            if (i >= 0) {
+                times[i] = (end - start) / 1000000.0;
+            }
+        }
+        
+        Arrays.sort(times);
+        return times[times.length / 2];
+    }
+    
+}
@@ -0,0 +1,86 @@
+package org.contan_lang.compiler;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.ContanModule;
+import org.contan_lang.ScriptRunner;
+import org.contan_lang.evaluators.FunctionBlock;
+import org.contan_lang.thread.ContanThread;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the scripts on the interpreter and with compiled functions, and compares the printed lines.
+ * Also checks that functions that await stay on the interpreter.
+ */
+public class FunctionCompilerTest {
+    
+    private static final String AWAIT_SOURCE =
+            "data f = async {\n" +
+            "    return 1\n" +
+            "}\n" +
+            "function waits() {\n" +
+            "    return f.await()\n" +
+            "}\n" +
+            "function plain(x) {\n" +
+            "    return x + 1\n" +
+            "}\n";
+    
+    @Test
+    public void compiledOnFirstCall() throws Exception {
+        assertSameOutput(1);
+    }
+    
+    @Test
+    public void compiledWhileRunning() throws Exception {
+        //Recursive and repeated calls switch from the interpreter to the compiled class halfway through
+        assertSameOutput(3);
+    }
+    
+    @Test
+    public void awaitNeverCompiled() throws Exception {
+        ContanEngine contanEngine = new ContanEngine();
+        contanEngine.setCompileThreshold(1);
+        ContanModule contanModule = contanEngine.compile("test/Await.cntn", AWAIT_SOURCE);
+        ContanThread mainThread = contanEngine.getMainThread();
+        contanModule.initialize(mainThread);
+        
+        FunctionBlock waits = getFunctionBlock(contanModule, "waits");
+        FunctionBlock plain = getFunctionBlock(contanModule, "plain");
+        assertFalse(FunctionCompiler.isCompilable(waits.getEvaluator()));
+        assertTrue(FunctionCompiler.isCompilable(plain.getEvaluator()));
+        
+        for (int i = 0; i < 3; i++) {
+            contanModule.invokeFunction(mainThread, "waits");
+            contanModule.invokeFunction(mainThread, "plain", i);
+        }
+        assertFalse("function with await was compiled", waits.isCompiled());
+        assertTrue("function without await was not compiled", plain.isCompiled());
+    }
+    
+    private static FunctionBlock getFunctionBlock(ContanModule contanModule, String functionName) {
+        for (FunctionBlock functionBlock : contanModule.getFunctionBlocks()) {
+            if (functionBlock.getFunctionName().getText().equals(functionName)) {
+                return functionBlock;
+            }
+        }
+        throw new IllegalArgumentException(functionName);
+    }
+    
+    private static void assertSameOutput(int compileThreshold) throws Exception {
+        int classCount = FunctionCompiler.getClassCount();
+        
+        for (String scriptName : ScriptRunner.SCRIPTS) {
+            List<String> interpreted = ScriptRunner.run(scriptName, contanEngine -> contanEngine.setCompileThreshold(-1));
+            List<String> compiled = ScriptRunner.run(scriptName, contanEngine -> contanEngine.setCompileThreshold(compileThreshold));
+            assertEquals(scriptName, interpreted, compiled);
+        }
+        
+        assertTrue("no function was compiled", FunctionCompiler.getClassCount() > classCount);
+    }
+    
+}
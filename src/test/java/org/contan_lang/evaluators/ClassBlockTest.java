@@ -0,0 +1,100 @@
+package org.contan_lang.evaluators;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.environment.Environment;
+import org.contan_lang.syntax.tokens.Token;
+import org.contan_lang.variables.primitive.ContanClassInstance;
+import org.contan_lang.variables.primitive.ContanClassObject;
+import org.contan_lang.variables.primitive.ContanI64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Uses a subclass from several threads while its super class is still being resolved.
+ */
+public class ClassBlockTest {
+    
+    private static final int THREADS = 8;
+    
+    private static final ContanEngine CONTAN_ENGINE = new ContanEngine();
+    
+    private interface ClassCheck {
+        void check(ClassBlock subClass, ClassBlock superClass, Environment moduleEnvironment, List<String> failures);
+    }
+    
+    @Test
+    public void concurrentInitialization() throws Exception {
+        runConcurrently((subClass, superClass, moduleEnvironment, failures) -> {
+            subClass.initializeClassInfo(moduleEnvironment);
+            if (subClass.getSuperClass() != superClass) {
+                failures.add("super class not resolved");
+            }
+            if (subClass.findFunction("base", 0) == null) {
+                failures.add("inherited function not found");
+            }
+        });
+    }
+    
+    @Test
+    public void concurrentInstances() throws Exception {
+        runConcurrently((subClass, superClass, moduleEnvironment, failures) -> {
+            ContanClassInstance instance = subClass.createInstance(CONTAN_ENGINE, CONTAN_ENGINE.getMainThread());
+            if (instance.getEnvironment().getVariable("super") == null) {
+                failures.add("super class not in the initializer chain");
+            }
+        });
+    }
+    
+    private static void runConcurrently(ClassCheck classCheck) throws Exception {
+        for (int repeat = 0; repeat < 20; repeat++) {
+            Environment moduleEnvironment = new Environment(CONTAN_ENGINE, null, CONTAN_ENGINE.getMainThread());
+            
+            ClassBlock superClass = new ClassBlock(token("Base"), "test", moduleEnvironment, null);
+            superClass.addFunctionBlock(new FunctionBlock(CONTAN_ENGINE, token("base"), environment -> ContanI64.valueOf(CONTAN_ENGINE, 1)));
+            
+            Evaluator superClassEval = environment -> {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return new ContanClassObject(CONTAN_ENGINE, superClass);
+            };
+            ClassBlock subClass = new ClassBlock(token("Sub"), "test", moduleEnvironment, superClassEval);
+            
+            List<String> failures = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                        classCheck.check(subClass, superClass, moduleEnvironment, failures);
+                    } catch (Throwable throwable) {
+                        failures.add(throwable.toString());
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            
+            assertEquals(Collections.emptyList(), failures);
+        }
+    }
+    
+    private static Token token(String text) {
+        return new Token(null, text, text.length(), null, null);
+    }
+    
+}
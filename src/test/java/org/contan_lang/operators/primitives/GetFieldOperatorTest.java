@@ -0,0 +1,95 @@
+package org.contan_lang.operators.primitives;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.ContanModule;
+import org.contan_lang.thread.ContanThread;
+import org.junit.Test;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Reads fields of more Java classes through one operator than it caches, in changing order.
+ */
+public class GetFieldOperatorTest {
+    
+    private static final String SOURCE =
+            "import Byte = importJava(\"java.lang.Byte\")\n" +
+            "import Short = importJava(\"java.lang.Short\")\n" +
+            "import Integer = importJava(\"java.lang.Integer\")\n" +
+            "import Long = importJava(\"java.lang.Long\")\n" +
+            "import Character = importJava(\"java.lang.Character\")\n" +
+            "function x(object) {\n" +
+            "    return object.x\n" +
+            "}\n" +
+            "function max(c) {\n" +
+            "    return c.MAX_VALUE\n" +
+            "}\n" +
+            "function maxByte() {\n" +
+            "    return max(Byte)\n" +
+            "}\n" +
+            "function maxShort() {\n" +
+            "    return max(Short)\n" +
+            "}\n" +
+            "function maxInteger() {\n" +
+            "    return max(Integer)\n" +
+            "}\n" +
+            "function maxLong() {\n" +
+            "    return max(Long)\n" +
+            "}\n" +
+            "function maxCharacter() {\n" +
+            "    return max(Character)\n" +
+            "}\n";
+    
+    @Test
+    public void instanceFields() throws Exception {
+        ContanEngine contanEngine = new ContanEngine();
+        ContanModule contanModule = contanEngine.compile("test/GetField.cntn", SOURCE);
+        ContanThread mainThread = contanEngine.getMainThread();
+        contanModule.initialize(mainThread);
+        
+        Object[] objects = {
+                new Point(1, 0),
+                new Rectangle(2, 0, 1, 1),
+                new Point2D.Double(3.5, 0),
+                new Rectangle2D.Double(4.5, 0, 1, 1),
+                new Ellipse2D.Double(5.5, 0, 1, 1),
+                new Arc2D.Double(6.5, 0, 1, 1, 0, 90, Arc2D.OPEN)
+        };
+        double[] expected = {1, 2, 3.5, 4.5, 5.5, 6.5};
+        
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < objects.length; i++) {
+                int index = repeat == 1 ? objects.length - 1 - i : i;
+                Object result = contanModule.invokeFunctionSync(mainThread, "x", objects[index]);
+                assertEquals(expected[index], ((Number) result).doubleValue(), 0);
+            }
+        }
+    }
+    
+    @Test
+    public void staticFields() throws Exception {
+        ContanEngine contanEngine = new ContanEngine();
+        ContanModule contanModule = contanEngine.compile("test/GetField.cntn", SOURCE);
+        ContanThread mainThread = contanEngine.getMainThread();
+        contanModule.initialize(mainThread);
+        
+        String[] functionNames = {"maxByte", "maxShort", "maxInteger", "maxLong", "maxCharacter"};
+        Object[] expected = {Byte.MAX_VALUE, Short.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE, Character.MAX_VALUE};
+        
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < functionNames.length; i++) {
+                int index = repeat == 1 ? functionNames.length - 1 - i : i;
+                Object result = contanModule.invokeFunctionSync(mainThread, functionNames[index]);
+                assertEquals(functionNames[index], String.valueOf(expected[index]), String.valueOf(result));
+            }
+        }
+    }
+    
+}
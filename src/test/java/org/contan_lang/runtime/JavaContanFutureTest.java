@@ -0,0 +1,162 @@
+package org.contan_lang.runtime;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.environment.ContanObjectReference;
+import org.contan_lang.environment.Environment;
+import org.contan_lang.evaluators.Evaluator;
+import org.contan_lang.evaluators.FunctionBlock;
+import org.contan_lang.runtime.JavaContanFuture.FunctionExpressionWithThread;
+import org.contan_lang.syntax.tokens.Token;
+import org.contan_lang.thread.ContanThread;
+import org.contan_lang.variables.ContanObject;
+import org.contan_lang.variables.primitive.ContanF64;
+import org.contan_lang.variables.primitive.ContanFunctionExpression;
+import org.contan_lang.variables.primitive.ContanVoidObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Adds continuations to a future from several threads while two other threads complete it.
+ * Each continuation has to run exactly once with the result that won, either from the completion
+ * or directly by the thread that added it too late.
+ */
+public class JavaContanFutureTest {
+    
+    private static final int ROUNDS = 200;
+    
+    private static final int THREADS = 6;
+    
+    private static final int CONTINUATIONS = 40;
+    
+    private static final ContanEngine CONTAN_ENGINE = new ContanEngine();
+    
+    @Test
+    public void concurrentCompletion() throws Exception {
+        ContanThread mainThread = CONTAN_ENGINE.getMainThread();
+        Environment expressionEnvironment = new Environment(CONTAN_ENGINE, null, mainThread);
+        
+        for (int round = 0; round < ROUNDS; round++) {
+            JavaContanFuture future = new JavaContanFuture(null);
+            ContanObject<?>[] results = {new ContanF64(CONTAN_ENGINE, round), new ContanF64(CONTAN_ENGINE, -round)};
+            
+            int count = THREADS * CONTINUATIONS;
+            AtomicIntegerArray runCounts = new AtomicIntegerArray(count);
+            AtomicReferenceArray<ContanObject<?>> seenResults = new AtomicReferenceArray<>(count);
+            List<String> failures = Collections.synchronizedList(new ArrayList<>());
+            
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+            
+            for (int t = 0; t < THREADS; t++) {
+                int firstId = t * CONTINUATIONS;
+                threads.add(new Thread(() -> {
+                    try {
+                        start.await();
+                        for (int id = firstId; id < firstId + CONTINUATIONS; id++) {
+                            boolean added;
+                            if (id % 2 == 0) {
+                                added = future.addAwaitEnvironment(new RecordingEnvironment(id, runCounts, seenResults), null);
+                            } else {
+                                added = future.addThen(createThen(id, runCounts, seenResults, expressionEnvironment));
+                            }
+                            
+                            if (!added) {
+                                //Too late, the caller runs it with the result it can already see
+                                record(id, future.getResult(), runCounts, seenResults);
+                            }
+                        }
+                    } catch (Throwable throwable) {
+                        failures.add(throwable.toString());
+                    }
+                }));
+            }
+            
+            for (ContanObject<?> result : results) {
+                threads.add(new Thread(() -> {
+                    try {
+                        start.await();
+                        Thread.yield();
+                        future.complete(result);
+                    } catch (Throwable throwable) {
+                        failures.add(throwable.toString());
+                    }
+                }));
+            }
+            
+            threads.forEach(Thread::start);
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            
+            //Then functions are scheduled on the main thread, which runs its tasks in order
+            mainThread.runTaskImmediately(() -> null);
+            
+            assertEquals(Collections.emptyList(), failures);
+            ContanObject<?> result = future.getResult();
+            for (int id = 0; id < count; id++) {
+                assertEquals("runs of continuation " + id, 1, runCounts.get(id));
+                assertSame("result of continuation " + id, result, seenResults.get(id));
+            }
+        }
+    }
+    
+    private static void record(int id, ContanObject<?> result, AtomicIntegerArray runCounts, AtomicReferenceArray<ContanObject<?>> seenResults) {
+        runCounts.incrementAndGet(id);
+        seenResults.set(id, result);
+    }
+    
+    private static FunctionExpressionWithThread createThen(int id, AtomicIntegerArray runCounts, AtomicReferenceArray<ContanObject<?>> seenResults,
+                                                           Environment expressionEnvironment) {
+        Evaluator evaluator = environment -> {
+            try {
+                ContanObjectReference argument = environment.getVariable("result");
+                record(id, argument.getContanObject(), runCounts, seenResults);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return ContanVoidObject.INSTANCE;
+        };
+        
+        FunctionBlock functionBlock = new FunctionBlock(CONTAN_ENGINE, token("then"), evaluator, token("result"));
+        ContanFunctionExpression functionExpression = new ContanFunctionExpression(CONTAN_ENGINE, functionBlock, expressionEnvironment);
+        return new FunctionExpressionWithThread(CONTAN_ENGINE.getMainThread(), functionExpression);
+    }
+    
+    private static Token token(String text) {
+        return new Token(null, text, text.length(), null, null);
+    }
+    
+    
+    private static class RecordingEnvironment extends Environment {
+        
+        private final int id;
+        
+        private final AtomicIntegerArray runCounts;
+        
+        private final AtomicReferenceArray<ContanObject<?>> seenResults;
+        
+        private RecordingEnvironment(int id, AtomicIntegerArray runCounts, AtomicReferenceArray<ContanObject<?>> seenResults) {
+            super(CONTAN_ENGINE, null, CONTAN_ENGINE.getMainThread());
+            this.id = id;
+            this.runCounts = runCounts;
+            this.seenResults = seenResults;
+        }
+        
+        @Override
+        public void rerun(Evaluator evaluator, ContanObject<?> result) {
+            record(id, result, runCounts, seenResults);
+        }
+        
+    }
+    
+}
@@ -0,0 +1,180 @@
+package org.contan_lang.runtime;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.runtime.JavaMethodTable.JavaMethod;
+import org.contan_lang.runtime.JavaMethodTable.MethodMatch;
+import org.contan_lang.variables.ContanObject;
+import org.contan_lang.variables.NumberType;
+import org.contan_lang.variables.primitive.ContanBoolean;
+import org.contan_lang.variables.primitive.ContanF64;
+import org.contan_lang.variables.primitive.ContanI64;
+import org.contan_lang.variables.primitive.ContanString;
+import org.contan_lang.variables.primitive.ContanVoidObject;
+import org.contan_lang.variables.primitive.JavaClassInstance;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Compares the methods selected by {@link JavaMethodCallSite} with the selection that converts every argument,
+ * passing values of the same classes but different number types through one site.
+ */
+public class JavaMethodCallSiteTest {
+    
+    private static final ContanEngine CONTAN_ENGINE = new ContanEngine();
+    
+    private static final ContanObject<?>[] VALUES = {
+            ContanI64.valueOf(CONTAN_ENGINE, 3),
+            ContanI64.valueOf(CONTAN_ENGINE, 1L << 40),
+            ContanI64.valueOf(CONTAN_ENGINE, (1L << 40) + 1),
+            new ContanF64(CONTAN_ENGINE, 2.5),
+            new ContanF64(CONTAN_ENGINE, 4.0),
+            new ContanF64(CONTAN_ENGINE, 0.1),
+            new ContanString(CONTAN_ENGINE, "text"),
+            new ContanString(CONTAN_ENGINE, "12"),
+            new ContanString(CONTAN_ENGINE, "1.5"),
+            ContanBoolean.valueOf(true),
+            ContanVoidObject.INSTANCE,
+            new JavaClassInstance(CONTAN_ENGINE, 7),
+            new JavaClassInstance(CONTAN_ENGINE, 7.25),
+            new JavaClassInstance(CONTAN_ENGINE, "text"),
+            new JavaClassInstance(CONTAN_ENGINE, new ArrayList<>()),
+            new JavaClassInstance(CONTAN_ENGINE, null)
+    };
+    
+    @Test
+    public void methods() {
+        assertSameSelection(Math.class, "abs", 1);
+        assertSameSelection(Math.class, "max", 2);
+        assertSameSelection(String.class, "valueOf", 1);
+        assertSameSelection(StringBuilder.class, "append", 1);
+        assertSameSelection(ArrayList.class, "remove", 1);
+        assertSameSelection(ArrayList.class, "add", 2);
+        assertSameSelection(List.class, "set", 2);
+    }
+    
+    @Test
+    public void constructors() {
+        assertSameSelection(StringBuilder.class, null, 1);
+        assertSameSelection(Integer.class, null, 1);
+    }
+    
+    private static void assertSameSelection(Class<?> clazz, String methodName, int argumentCount) {
+        List<ContanObject<?>[]> argumentLists = new ArrayList<>();
+        if (argumentCount == 1) {
+            for (ContanObject<?> value : VALUES) {
+                argumentLists.add(new ContanObject<?>[]{value});
+            }
+        } else {
+            for (ContanObject<?> first : VALUES) {
+                for (ContanObject<?> second : VALUES) {
+                    argumentLists.add(new ContanObject<?>[]{first, second});
+                }
+            }
+        }
+        
+        JavaMethodCallSite forward = new JavaMethodCallSite(methodName);
+        JavaMethodCallSite backward = new JavaMethodCallSite(methodName);
+        JavaMethod[] methods = methodName == null ? JavaMethodTable.get(clazz).getConstructors(argumentCount)
+                : JavaMethodTable.get(clazz).getMethods(methodName, argumentCount);
+        
+        for (int repeat = 0; repeat < 2; repeat++) {
+            for (int i = 0; i < argumentLists.size(); i++) {
+                assertSameMatch(methods, forward, clazz, argumentLists.get(i));
+                assertSameMatch(methods, backward, clazz, argumentLists.get(argumentLists.size() - 1 - i));
+            }
+        }
+    }
+    
+    private static void assertSameMatch(JavaMethod[] methods, JavaMethodCallSite callSite, Class<?> clazz, ContanObject<?>[] variables) {
+        Object[] javaObjects = new Object[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            javaObjects[i] = variables[i] == ContanVoidObject.INSTANCE ? "void" : variables[i].convertToJavaObject();
+        }
+        String message = clazz.getSimpleName() + " " + Arrays.toString(javaObjects);
+        
+        MethodMatch expected = referenceFind(methods, variables);
+        MethodMatch match = callSite.find(clazz, variables);
+        MethodMatch uncached = JavaMethodTable.find(methods, variables);
+        
+        if (expected == null) {
+            assertNull(message, match);
+            assertNull(message, uncached);
+            return;
+        }
+        
+        assertNotNull(message, match);
+        assertNotNull(message, uncached);
+        assertEquals(message, expected.method.executable, match.method.executable);
+        assertArrayEquals(message, expected.converters, match.converters);
+        assertEquals(message, expected.method.executable, uncached.method.executable);
+        assertArrayEquals(message, expected.converters, uncached.converters);
+    }
+    
+    /**
+     * Selection of the previous implementation, which converted every argument before checking the methods.
+     */
+    private static MethodMatch referenceFind(JavaMethod[] methods, ContanObject<?>[] variables) {
+        NumberType[] numberTypes = new NumberType[variables.length];
+        Object[] javaObjects = new Object[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i].convertibleToDouble()) {
+                numberTypes[i] = NumberType.getType(variables[i].toDouble());
+            }
+            javaObjects[i] = variables[i].convertToJavaObject();
+        }
+        
+        method:
+        for (JavaMethod method : methods) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            byte[] converters = new byte[parameterTypes.length];
+            
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Class<?> parameterType = parameterTypes[i];
+                NumberType numberType = numberTypes[i];
+                
+                if (numberType != null) {
+                    if (parameterType == int.class || parameterType == Integer.class) {
+                        if (numberType != NumberType.INTEGER) continue method;
+                        converters[i] = JavaMethod.CONVERT_INT;
+                        continue;
+                    } else if (parameterType == long.class || parameterType == Long.class) {
+                        if (numberType != NumberType.LONG && numberType != NumberType.INTEGER) continue method;
+                        converters[i] = JavaMethod.CONVERT_LONG;
+                        continue;
+                    } else if (parameterType == float.class || parameterType == Float.class) {
+                        if (numberType != NumberType.FLOAT && numberType != NumberType.INTEGER) continue method;
+                        converters[i] = JavaMethod.CONVERT_FLOAT;
+                        continue;
+                    } else if (parameterType == double.class || parameterType == Double.class) {
+                        converters[i] = JavaMethod.CONVERT_DOUBLE;
+                        continue;
+                    }
+                }
+                
+                converters[i] = JavaMethod.CONVERT_OBJECT;
+                if (variables[i] == ContanVoidObject.INSTANCE) {
+                    continue;
+                }
+                
+                Object converted = javaObjects[i];
+                if (converted instanceof Boolean) {
+                    if (parameterType != boolean.class && parameterType != Boolean.class) continue method;
+                } else if (!parameterType.isInstance(converted)) {
+                    continue method;
+                }
+            }
+            
+            return new MethodMatch(method, converters);
+        }
+        return null;
+    }
+    
+}
@@ -0,0 +1,81 @@
+package org.contan_lang.runtime;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.runtime.JavaMethodTable.MethodMatch;
+import org.contan_lang.variables.ContanObject;
+import org.contan_lang.variables.primitive.ContanVoidObject;
+import org.contan_lang.variables.primitive.JavaClassInstance;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that a Java method invoked through {@link MethodMatch} reports what it throws apart from
+ * arguments or receivers that do not fit it.
+ */
+public class JavaMethodTableTest {
+    
+    private static final ContanEngine CONTAN_ENGINE = new ContanEngine();
+    
+    @Test
+    public void thrownByMethod() throws Exception {
+        ContanObject<?>[] variables = {new JavaClassInstance(CONTAN_ENGINE, 7)};
+        MethodMatch match = JavaMethodTable.get(Target.class).find("castToString", variables);
+        assertNotNull(match);
+        
+        try {
+            match.invoke(null, variables);
+            fail("exception of the method not thrown");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof ClassCastException);
+        }
+        
+        variables = new ContanObject<?>[]{new JavaClassInstance(CONTAN_ENGINE, "text")};
+        assertEquals("text", JavaMethodTable.get(Target.class).find("castToString", variables).invoke(null, variables));
+    }
+    
+    @Test
+    public void argumentMismatch() throws Exception {
+        //Void is accepted as an object, and is null for a primitive parameter
+        ContanObject<?>[] variables = {ContanVoidObject.INSTANCE};
+        MethodMatch match = JavaMethodTable.get(Math.class).find("abs", variables);
+        assertNotNull(match);
+        
+        try {
+            match.invoke(null, variables);
+            fail("null passed to a primitive parameter");
+        } catch (IllegalArgumentException e) {
+            //Expected
+        }
+    }
+    
+    @Test
+    public void receiverMismatch() throws Exception {
+        ContanObject<?>[] variables = {};
+        MethodMatch match = JavaMethodTable.get(String.class).find("length", variables);
+        assertNotNull(match);
+        assertEquals(4, match.invoke("text", variables));
+        
+        try {
+            match.invoke(7, variables);
+            fail("method invoked on an object of another class");
+        } catch (IllegalArgumentException e) {
+            //Expected
+        }
+    }
+    
+    
+    public static class Target {
+        
+        public static String castToString(Object object) {
+            return (String) object;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,72 @@
+package org.contan_lang.syntax;
+
+import org.contan_lang.ScriptRunner;
+import org.contan_lang.syntax.tokens.StringToken;
+import org.contan_lang.syntax.tokens.Token;
+import org.contan_lang.syntax.tokens.TokenList;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the tokens of {@link Lexer} with the ones of the previous lexer.
+ */
+public class LexerTest {
+    
+    private static final String[] SNIPPETS = {
+            "",
+            "a",
+            "data x=1",
+            "a.b.c(1.5, 2 . 3)",
+            "x==y&&!z||w!=v",
+            "data1 = dataX + data",
+            "\"a\\\"b\" + \"c\\\\\"",
+            "\"// not a comment\" /* comment */ a",
+            "a // comment\nb",
+            "/* unterminated",
+            "a/*b*/c",
+            "function f(){return f()}",
+            "l[0] = 1\r\nprint(l)",
+            "text = \"あい\" + う",
+            "#label repeat { stop }",
+            "dataz zdata z9is is9 isz"
+    };
+    
+    @Test
+    public void scripts() {
+        for (String scriptName : ScriptRunner.SCRIPTS) {
+            assertSameTokens(scriptName, ScriptRunner.read(scriptName));
+        }
+    }
+    
+    @Test
+    public void snippets() {
+        for (String snippet : SNIPPETS) {
+            assertSameTokens(snippet, snippet);
+        }
+    }
+    
+    private static void assertSameTokens(String name, String text) {
+        TokenList tokens = new Lexer("test", text).tokens;
+        List<Token> expected = ReferenceLexer.split(new Lexer("test", text));
+        
+        assertEquals(name + " token count", expected.size(), tokens.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Token expectedToken = expected.get(i);
+            Token token = tokens.get(i);
+            String message = name + " token " + i + " '" + expectedToken.getText() + "'";
+            
+            assertEquals(message, expectedToken.getText(), token.getText());
+            assertEquals(message, expectedToken.getIdentifier(), token.getIdentifier());
+            assertEquals(message, expectedToken instanceof StringToken, token instanceof StringToken);
+            assertEquals(message, expectedToken.startColumnIndex, token.startColumnIndex);
+            assertEquals(message, expectedToken.endColumnIndex, token.endColumnIndex);
+            assertEquals(message, expectedToken.lineToken.line, token.lineToken.line);
+            assertEquals(message, expectedToken.lineToken.getLineText(), token.lineToken.getLineText());
+            assertEquals(message, i, token.index);
+        }
+    }
+    
+}
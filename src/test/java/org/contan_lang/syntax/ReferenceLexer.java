@@ -0,0 +1,244 @@
+package org.contan_lang.syntax;
+
+import org.contan_lang.syntax.tokens.LineToken;
+import org.contan_lang.syntax.tokens.StringToken;
+import org.contan_lang.syntax.tokens.Token;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The lexer before the trie, kept unchanged as the reference for {@link LexerTest}.
+ */
+class ReferenceLexer {
+
+    static List<Token> split(Lexer lexer) {
+        String text = lexer.text;
+        List<Token> tokens = new ArrayList<>();
+        
+        int textLength = text.length();
+        
+        int currentLine = 1;
+        int currentColumn = 0;
+        LineToken currentLineToken = new LineToken(1);
+        
+        StringBuilder keyWord = new StringBuilder();
+        
+        boolean isInString = false;
+        boolean escaped = false;
+        CommentType commentType = null;
+        
+        loop : for (int i = 0; i < textLength; i++) {
+            char currentCharacter = text.charAt(i);
+            
+            
+            if (commentType != null) {
+                
+                currentColumn++;
+                if (currentCharacter == '\n') {
+                    currentLine++;
+                    currentColumn = 0;
+                    currentLineToken.build();
+                    currentLineToken = new LineToken(currentLine);
+                } else {
+                    currentLineToken.append(currentCharacter);
+                }
+                
+                if (commentType == CommentType.LINE) {
+                    if (currentCharacter == '\n') {
+                        commentType = null;
+                    }
+                } else {
+                    if (currentCharacter == '*' && !isInString && i + 1 != textLength) {
+                        if (text.charAt(i + 1) == '/') {
+                            i++;
+                            commentType = null;
+                        }
+                    }
+                }
+                
+                continue;
+            }
+            
+            if (currentCharacter == '/' && !isInString && i + 1 != textLength) {
+                char next = text.charAt(i + 1);
+                
+                if (next == '/') {
+                    commentType = CommentType.LINE;
+                } else if (next == '*') {
+                    commentType = CommentType.BLOCK;
+                }
+                
+                
+                if (commentType != null) {
+                    if (keyWord.length() != 0) {
+                        String key = keyWord.toString();
+        
+                        Token token = null;
+        
+                        if (text.charAt(i - 1) == '"') {
+                            token = new StringToken(lexer, key, currentColumn, currentLineToken, null);
+                        }
+        
+                        if (token == null) {
+                            //Check identifier
+                            id:
+                            for (Identifier identifier : Identifier.values()) {
+                                for (String word : identifier.words) {
+                                    if (word.equals(key)) {
+                                        token = new Token(lexer, key, currentColumn, currentLineToken, identifier);
+                                        break id;
+                                    }
+                                }
+                            }
+                        }
+        
+                        if (token == null) {
+                            token = new Token(lexer, key, currentColumn, currentLineToken, null);
+                        }
+        
+                        tokens.add(token);
+                        keyWord = new StringBuilder();
+                    }
+    
+                    currentColumn++;
+                    currentLineToken.append(currentCharacter);
+                    
+                    continue;
+                }
+            }
+            
+            
+            if (currentCharacter == '"' && !escaped) {
+                isInString = !isInString;
+            }
+            
+            if ((currentCharacter == ' ' || currentCharacter == '\n' || i == textLength - 1) && !isInString) {
+                if (keyWord.length() != 0) {
+                    if (i == textLength - 1) {
+                        keyWord.append(currentCharacter);
+                    }
+                    String key = keyWord.toString();
+                    
+                    Token token = null;
+
+                    if (text.charAt(i - 1) == '"') {
+                        token = new StringToken(lexer, key, currentColumn, currentLineToken, null);
+                    }
+
+                    if (token == null) {
+                        //Check identifier
+                        id:
+                        for (Identifier identifier : Identifier.values()) {
+                            for (String word : identifier.words) {
+                                if (word.equals(key)) {
+                                    token = new Token(lexer, key, currentColumn, currentLineToken, identifier);
+                                    break id;
+                                }
+                            }
+                        }
+                    }
+                    
+                    if (token == null) {
+                        token = new Token(lexer, key, currentColumn, currentLineToken, null);
+                    }
+                    
+                    tokens.add(token);
+                    keyWord = new StringBuilder();
+                }
+            } else {
+                if (currentCharacter == '\\' || currentCharacter == '"') {
+                    if (escaped) {
+                        keyWord.append(currentCharacter);
+                    }
+                } else {
+                    keyWord.append(currentCharacter);
+                }
+            }
+    
+            if (currentCharacter == '\\' && isInString) {
+                escaped = true;
+            } else {
+                escaped = false;
+            }
+    
+            
+            currentColumn++;
+    
+            if (currentCharacter == '\n') {
+                currentLine++;
+                currentColumn = 0;
+        
+                currentLineToken.build();
+                currentLineToken = new LineToken(currentLine);
+            } else {
+                currentLineToken.append(currentCharacter);
+            }
+            
+            
+            if (isInString) {
+                continue;
+            }
+            
+            //Check identifier
+            for (Identifier identifier : Identifier.values()) {
+                for (String word : identifier.words) {
+                    if (text.substring(i).startsWith(word)) {
+                        if (!identifier.adjoinable) {
+                            if (i != 0) {
+                                if (String.valueOf(text.charAt(i - 1)).matches("^[0-9a-zA-Z]*$")) {
+                                    continue;
+                                }
+                            }
+                            
+                            if (i + word.length() != textLength - 1) {
+                                if (String.valueOf(text.charAt(i + word.length())).matches("^[0-9a-zA-Z]*$")) {
+                                    continue;
+                                }
+                            }
+                        }
+
+                        if (identifier == Identifier.DOT) {
+                            if (i != 0) {
+                                if (Character.isDigit(text.charAt(i - 1))) {
+                                    if (i != textLength - 1) {
+                                        if (Character.isDigit(text.charAt(i + 1))) {
+                                            continue;
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                        
+                        if (keyWord.length() > 1) {
+                            String key = keyWord.toString();
+                            if (text.charAt(i - 1) == '"') {
+                                tokens.add(new StringToken(lexer, key.substring(0, key.length() - 1), currentColumn - 1, currentLineToken, null));
+                            } else {
+                                tokens.add(new Token(lexer, key.substring(0, key.length() - 1), currentColumn - 1, currentLineToken, null));
+                            }
+                        }
+                        keyWord = new StringBuilder();
+                        
+                        i += word.length() - 1;
+                        currentColumn += word.length() - 1;
+                        currentLineToken.append(word.substring(1));
+                        tokens.add(new Token(lexer, word, currentColumn, currentLineToken, identifier));
+                        
+                        continue loop;
+                    }
+                }
+            }
+        }
+    
+        currentLineToken.build();
+        
+        return tokens;
+    }
+    
+    private enum CommentType {
+        LINE,
+        BLOCK
+    }
+    
+}
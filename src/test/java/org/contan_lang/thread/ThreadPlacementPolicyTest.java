@@ -0,0 +1,187 @@
+package org.contan_lang.thread;
+
+import org.contan_lang.ContanEngine;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the placement policies against threads with fixed task counts,
+ * and the task counts of {@link BasicContanThread}.
+ */
+public class ThreadPlacementPolicyTest {
+    
+    private static final int SELECTIONS = 1000;
+    
+    @Test
+    public void roundRobin() {
+        List<ContanThread> threads = createThreads(0, 5, 0);
+        ThreadPlacementPolicy policy = ThreadPlacementPolicy.roundRobin();
+        
+        for (int i = 0; i < 7; i++) {
+            assertSame("selection " + i, threads.get(i % 3), policy.select(threads, null));
+        }
+    }
+    
+    @Test
+    public void leastLoaded() {
+        ThreadPlacementPolicy policy = ThreadPlacementPolicy.leastLoaded();
+        
+        List<ContanThread> threads = createThreads(3, 2, 4, 1, 5);
+        assertSame(threads.get(3), policy.select(threads, null));
+        
+        List<ContanThread> tied = createThreads(3, 1, 2, 1);
+        assertSame(tied.get(1), policy.select(tied, null));
+        
+        List<ContanThread> idle = createThreads(0, 0, 0);
+        assertSame(idle.get(0), policy.select(idle, null));
+    }
+    
+    @Test
+    public void powerOfTwoChoices() {
+        ThreadPlacementPolicy policy = ThreadPlacementPolicy.powerOfTwoChoices();
+        
+        List<ContanThread> single = createThreads(7);
+        assertSame(single.get(0), policy.select(single, null));
+        
+        //Two different threads are compared, so the idle one of two is always chosen
+        List<ContanThread> pair = createThreads(1, 0);
+        for (int i = 0; i < SELECTIONS; i++) {
+            assertSame("selection " + i, pair.get(1), policy.select(pair, null));
+        }
+        
+        List<ContanThread> threads = createThreads(4, 3, 2, 1, 0);
+        for (int i = 0; i < SELECTIONS; i++) {
+            for (ContanThread thread : threads) {
+                ((StubThread) thread).readCount = 0;
+            }
+            
+            StubThread selected = (StubThread) policy.select(threads, null);
+            
+            int readThreads = 0;
+            for (ContanThread thread : threads) {
+                StubThread stubThread = (StubThread) thread;
+                assertTrue("thread read more than once", stubThread.readCount <= 1);
+                readThreads += stubThread.readCount;
+                if (stubThread.readCount == 1) {
+                    assertTrue("more loaded thread chosen", selected.queuedTaskCount <= stubThread.queuedTaskCount);
+                }
+            }
+            assertEquals("selection " + i, 2, readThreads);
+            assertEquals("selected thread not read", 1, selected.readCount);
+        }
+    }
+    
+    @Test
+    public void callerAffinity() {
+        ThreadPlacementPolicy policy = ThreadPlacementPolicy.callerAffinity();
+        List<ContanThread> threads = createThreads(5, 0, 5, 0);
+        
+        for (ContanThread thread : threads) {
+            assertSame(thread, policy.select(threads, thread));
+        }
+        
+        ContanThread mainThread = new StubThread(0, 0);
+        ContanThread selected = policy.select(threads, mainThread);
+        assertTrue(threads.contains(selected));
+        for (int i = 0; i < SELECTIONS; i++) {
+            assertSame("selection " + i, selected, policy.select(threads, mainThread));
+        }
+        
+        assertSame(threads.get(0), policy.select(threads, null));
+    }
+    
+    @Test
+    public void basicThreadCounts() throws Exception {
+        BasicContanThread thread = new BasicContanThread(null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        thread.scheduleTask(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        thread.scheduleTask(() -> null);
+        thread.scheduleTask(() -> {
+            throw new IllegalStateException("Failed task");
+        });
+        
+        started.await();
+        assertEquals(1, thread.getRunningTaskCount());
+        assertEquals(2, thread.getQueuedTaskCount());
+        
+        release.countDown();
+        thread.runTaskImmediately(() -> null);
+        assertEquals(0, thread.getRunningTaskCount());
+        assertEquals(0, thread.getQueuedTaskCount());
+        
+        assertTrue(thread.shutdownWithAwait(10, TimeUnit.SECONDS));
+        try {
+            thread.scheduleTask(() -> null);
+            fail("task scheduled after shutdown");
+        } catch (RejectedExecutionException e) {
+            //Expected
+        }
+        assertEquals(0, thread.getRunningTaskCount());
+        assertEquals(0, thread.getQueuedTaskCount());
+    }
+    
+    private static List<ContanThread> createThreads(int... queuedTaskCounts) {
+        ContanThread[] threads = new ContanThread[queuedTaskCounts.length];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new StubThread(queuedTaskCounts[i], 0);
+        }
+        return Collections.unmodifiableList(Arrays.asList(threads));
+    }
+    
+    
+    private static class StubThread implements ContanThread {
+        
+        private final int queuedTaskCount;
+        
+        private final int runningTaskCount;
+        
+        //Number of times the load of this thread has been read
+        private int readCount = 0;
+        
+        private StubThread(int queuedTaskCount, int runningTaskCount) {
+            this.queuedTaskCount = queuedTaskCount;
+            this.runningTaskCount = runningTaskCount;
+        }
+        
+        @Override
+        public <T> T runTaskImmediately(Callable<T> task) {throw new UnsupportedOperationException();}
+        
+        @Override
+        public <T> void scheduleTask(Callable<T> task) {throw new UnsupportedOperationException();}
+        
+        @Override
+        public boolean shutdownWithAwait(long timeout, TimeUnit timeUnit) {return true;}
+        
+        @Override
+        public ContanEngine getContanEngine() {return null;}
+        
+        @Override
+        public int getQueuedTaskCount() {
+            readCount++;
+            return queuedTaskCount;
+        }
+        
+        @Override
+        public int getRunningTaskCount() {return runningTaskCount;}
+        
+    }
+    
+}
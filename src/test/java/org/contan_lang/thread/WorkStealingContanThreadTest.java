@@ -0,0 +1,122 @@
+package org.contan_lang.thread;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Runs logical threads on a small pool, and checks the order of their tasks and their shutdown.
+ */
+public class WorkStealingContanThreadTest {
+    
+    //Several times the batch size of a drain task
+    private static final int TASKS = 1000;
+    
+    private static final int THREADS = 8;
+    
+    private static final int SHUTDOWN_ROUNDS = 200;
+    
+    //Fewer workers than logical threads, its threads are daemons and end with the tests
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+    
+    @Test
+    public void tasksRunInOrder() throws Exception {
+        List<WorkStealingContanThread> threads = new ArrayList<>();
+        List<List<Integer>> runOrders = new ArrayList<>();
+        List<AtomicInteger> runningCounts = new ArrayList<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(new WorkStealingContanThread(null, POOL));
+            runOrders.add(Collections.synchronizedList(new ArrayList<>()));
+            runningCounts.add(new AtomicInteger());
+        }
+        
+        //Tasks of all logical threads interleaved, so their drain tasks share the workers
+        for (int i = 0; i < TASKS; i++) {
+            for (int t = 0; t < THREADS; t++) {
+                int index = i;
+                List<Integer> runOrder = runOrders.get(t);
+                AtomicInteger runningCount = runningCounts.get(t);
+                
+                threads.get(t).scheduleTask(() -> {
+                    if (runningCount.incrementAndGet() != 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    runOrder.add(index);
+                    runningCount.decrementAndGet();
+                    return null;
+                });
+            }
+        }
+        
+        for (int t = 0; t < THREADS; t++) {
+            threads.get(t).runTaskImmediately(() -> null);
+            
+            List<Integer> runOrder = runOrders.get(t);
+            assertEquals("thread " + t, TASKS, runOrder.size());
+            for (int i = 0; i < TASKS; i++) {
+                assertEquals("thread " + t + " task " + i, i, (int) runOrder.get(i));
+            }
+        }
+        assertEquals("tasks of one logical thread ran at the same time", 0, overlaps.get());
+    }
+    
+    @Test
+    public void scheduleAfterShutdown() throws Exception {
+        WorkStealingContanThread thread = new WorkStealingContanThread(null, POOL);
+        thread.runTaskImmediately(() -> null);
+        assertTrue(thread.shutdownWithAwait(10, TimeUnit.SECONDS));
+        
+        try {
+            thread.scheduleTask(() -> null);
+            fail("task scheduled after shutdown");
+        } catch (RejectedExecutionException e) {
+            //Expected
+        }
+        assertEquals(0, thread.getQueuedTaskCount());
+    }
+    
+    @Test
+    public void shutdownReturnsOnceDrained() throws Exception {
+        for (int round = 0; round < SHUTDOWN_ROUNDS; round++) {
+            WorkStealingContanThread thread = new WorkStealingContanThread(null, POOL);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runCount = new AtomicInteger();
+            
+            thread.scheduleTask(() -> {
+                release.await();
+                return runCount.incrementAndGet();
+            });
+            for (int i = 0; i < 3; i++) {
+                thread.scheduleTask(runCount::incrementAndGet);
+            }
+            
+            //Released while the shutdown starts to wait, on some rounds before it and on others after it
+            Thread releaser = new Thread(release::countDown);
+            releaser.start();
+            
+            long start = System.nanoTime();
+            boolean terminated = thread.shutdownWithAwait(30, TimeUnit.SECONDS);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            releaser.join();
+            
+            assertTrue("round " + round + " timed out", terminated);
+            assertTrue("round " + round + " took " + millis + " ms", millis < 5000);
+            assertEquals("round " + round, 4, runCount.get());
+            assertEquals("round " + round, 0, thread.getQueuedTaskCount());
+        }
+    }
+    
+}
@@ -0,0 +1,42 @@
+package org.contan_lang.variables.primitive;
+
+import org.contan_lang.ContanEngine;
+import org.contan_lang.syntax.tokens.Token;
+import org.contan_lang.thread.ContanThread;
+import org.contan_lang.variables.ContanObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks that the values derived from the cached values, which have no engine, get the engine of the calling thread.
+ */
+public class ContanPrimitiveObjectTest {
+    
+    @Test
+    public void derivedFromCachedValues() {
+        ContanEngine contanEngine = new ContanEngine();
+        ContanThread mainThread = contanEngine.getMainThread();
+        
+        ContanI64 cached = ContanI64.valueOf(contanEngine, 5);
+        assertNull(cached.getContanEngine());
+        
+        ContanObject<?>[] results = {
+                cached.invokeFunction(mainThread, token("toString")),
+                cached.invokeFunction(mainThread, token("toDouble")),
+                ContanBoolean.valueOf(true).invokeFunction(mainThread, token("toString"))
+        };
+        for (ContanObject<?> result : results) {
+            assertSame(contanEngine, result.getContanEngine());
+        }
+        assertEquals("5", results[0].toString());
+        assertEquals(5.0, results[1].toDouble(), 0);
+    }
+    
+    private static Token token(String text) {
+        return new Token(null, text, text.length(), null, null);
+    }
+    
+}